@@ -1,29 +1,56 @@
 import controllers.BaseController;
 import controllers.Home;
-import controllers.helpers.Serializer;
+import javafx.application.Platform;
 import javafx.application.Application;
+import javafx.scene.control.Alert;
 import javafx.stage.Stage;
+import backend.OrderBus;
 import backend.Restaurant;
+import backend.RestaurantStore;
 import backend.employees.EmployeeFactory;
+import backend.helpers.LogManager;
+import backend.helpers.Startup;
+
+import java.io.IOException;
 
 public class Main extends Application {
 
     // Constants
     private static final String APP_TITLE = "Restman: Restaurant Management System";
-    private static final String DATA_PATH = "restaurant.ser";
 
     // Instance variable
     private Restaurant restaurant;
+    private IOException recoveryError;   // why the saved restaurant could not be loaded, if it could not
 
     /**
-     * Constructs the class by loading necessary information.
+     * Constructs the class by loading the restaurant. Its history (archived orders, the event log and analytics, and
+     * ingredient requests) is loaded in the background at the same time, so the Home screen does not wait for it.
+     * Changes to orders are written to the event log, and ingredients they ran low on are requested, from the
+     * OrderBus's own threads, so they do not wait for it either. If the saved restaurant cannot be loaded, no new one is started in its place.
      */
     public Main() {
-        restaurant = new Serializer(DATA_PATH).deserialize();
+        Startup.getInstance().begin();
+        OrderBus.getInstance().subscribe(events -> events.forEach(LogManager.getInstance()::log),
+                OrderBus.Dispatch.ASYNC);
+
+        RestaurantStore store = RestaurantStore.getInstance();
+        store.setFailureListener(e -> Platform.runLater(() -> new Alert(Alert.AlertType.ERROR,
+                "A change could not be saved. Restman will try to save everything again, but changes may be lost " +
+                        "if it closes before they are saved.\n\n" + e.getMessage()).show()));
+        try {
+            restaurant = store.recover();
+        } catch (IOException e) {
+            recoveryError = e;
+            return;
+        }
         if (restaurant == null) {
             restaurant = new Restaurant();
+            store.open(restaurant);
             new EmployeeFactory(restaurant).create("manager", "admin");
         }
+        OrderBus.getInstance().subscribe(restaurant.getInventory()::reorder, OrderBus.Dispatch.ASYNC);
+        Startup.getInstance().whenReady(Startup.Stage.ARCHIVE,
+                () -> Platform.runLater(restaurant::archiveBilledOrders));
     }
 
     /**
@@ -33,14 +60,25 @@ public class Main extends Application {
      */
     @Override
     public void start(Stage primaryStage) {
+        if (recoveryError != null) {
+            new Alert(Alert.AlertType.ERROR, "The saved restaurant could not be loaded, so Restman will not start. " +
+                    "No files were changed.\n\n" + recoveryError.getMessage()).showAndWait();
+            OrderBus.getInstance().shutdown();
+            LogManager.getInstance().shutdown();
+            Platform.exit();
+            return;
+        }
+
         // Setup the stage
         primaryStage.setTitle(APP_TITLE);
         primaryStage.setMaximized(true);
         BaseController.setup(primaryStage, restaurant);
 
-        // Serialize for persistence on exit
+        // Take a final snapshot on exit; changes are saved to the store as they happen
         primaryStage.setOnCloseRequest(event -> {
-            new Serializer(DATA_PATH).serialize(restaurant);
+            RestaurantStore.getInstance().close();
+            OrderBus.getInstance().shutdown();
+            LogManager.getInstance().shutdown();
         });
 
         // Initialize scene and show window
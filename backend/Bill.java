@@ -1,19 +1,28 @@
 package backend;
 
-import controllers.helpers.StringHelper;
-import javafx.scene.control.Label;
-import javafx.scene.layout.GridPane;
 import backend.foods.MenuIngredient;
 import backend.foods.Order;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * The Bill class represents the bill for a specific table (all orders made by the customer at a specific table).
  * The Bill class will aggregate the orders made by customers at the table, and calculates the total cost (along with
- * any additional costs of extra ingredients). It then returns a GUI-usable GridPane for appropriate layout.
+ * any additional costs of extra ingredients). It is plain data, taken when the bill is made, so it can be computed off
+ * the JavaFX thread and shown or printed by a renderer after the table has been cleared.
  */
 public class Bill {
 
-    private Table table;
+    // Constants
+    public static final int HST = 13;           // percent
+    public static final int GRATUITY = 15;      // percent
+
+    // Instance variables
+    private final int tableId;
+    private final List<CustomerBill> customers;
+    private final Totals totals;
 
     /**
      * Constructor for the Bill class.
@@ -21,124 +30,259 @@ public class Bill {
      * @param table table this instance of Bill will be the bill for.
      */
     Bill(Table table) {
-        this.table = table;
+        this.tableId = table.getId();
+
+        List<CustomerBill> customers = new ArrayList<>();
+        long subtotal = 0;
+        for (Customer customer : table.getCustomers()) {
+            if (customer.getConfirmedOrders().size() == 0) continue;
+            CustomerBill bill = new CustomerBill(customer);
+            customers.add(bill);
+            subtotal += bill.getTotals().getSubtotal();
+        }
+        this.customers = Collections.unmodifiableList(customers);
+        this.totals = new Totals(subtotal);
     }
 
     /**
-     * Generates the total bill for this customer with additional costs in the order.
+     * Gets the id of the table that was billed.
      *
-     * @param customer customer the bill is for
-     * @return double total cost of the customers orders
+     * @return Returns the table id.
      */
-    private double getCustomerTotal(Customer customer) {
-        double totalCustomerBill = 0.00;
-        for (Order order : customer.getConfirmedOrders()) {
-            totalCustomerBill += order.getPrice();
-        }
-        return Math.round(totalCustomerBill * 100.0) / 100.0;
+    public int getTableId() {
+        return tableId;
     }
 
     /**
-     * Generates the total bill for all customers at this table
+     * Gets the bill of each customer at the table who has confirmed orders.
      *
-     * @return double bill of this table
+     * @return Returns the customers' bills.
      */
-    private double getTableTotal() {
-        double totalTableBill = 0.00;
-        for (Customer customer : table.getCustomers()) {
-            totalTableBill += getCustomerTotal(customer);
-        }
-        return Math.round(totalTableBill * 100.0) / 100.0;
+    public List<CustomerBill> getCustomers() {
+        return customers;
     }
 
     /**
-     * Helper method to repeat a specified string a specific number of times
+     * Gets the totals of the whole table.
      *
-     * @param s     string to repeat
-     * @param times number of times you want to repeat the string
-     * @return the string repeated
+     * @return Returns the table's totals.
      */
-    private String repeat(String s, int times) {
-        return new String(new char[times]).replace("\0", s);
+    public Totals getTotals() {
+        return totals;
     }
 
     /**
-     * Generates a comprehensive bill which shows the specific bill details of each customer
-     * along with their order and including additional orders. Also shows the bill for the entire table
-     * leaving the option of splitting or paying the total to the table to decide
-     *
-     * @return Returns a GridPane representation of the table's bill
+     * The part of a bill for a single customer.
      */
-    public GridPane getTableBill() {
-        GridPane gridPane = new GridPane();
-        gridPane.setStyle("-fx-font-size:18px;");
-        gridPane.setHgap(20);
-        gridPane.add(new Label("Bill for table #" + table.getId()), 0, 0);
+    public static class CustomerBill {
+        private final int customerId;
+        private final List<Item> items;
+        private final Totals totals;
 
-        int row = 0;
-        for (Customer c : table.getCustomers()) {
-            if (c.getConfirmedOrders().size() != 0)
-                row = addCustomerBill(gridPane, c, row);
+        /**
+         * Constructs the bill of a customer from their confirmed orders.
+         *
+         * @param customer The customer.
+         */
+        private CustomerBill(Customer customer) {
+            this.customerId = customer.getId();
+
+            List<Item> items = new ArrayList<>();
+            long subtotal = 0;
+            for (Order order : customer.getConfirmedOrders()) {
+                Item item = new Item(order);
+                items.add(item);
+                subtotal += item.getPrice();
+                for (Extra extra : item.getExtras()) subtotal += extra.getCost();
+            }
+            this.items = Collections.unmodifiableList(items);
+            this.totals = new Totals(subtotal);
         }
 
-        addExtraCosts(gridPane, getTableTotal(), row, 0);
-        return gridPane;
+        /**
+         * Gets the id of the customer.
+         *
+         * @return Returns the customer id.
+         */
+        public int getCustomerId() {
+            return customerId;
+        }
+
+        /**
+         * Gets an item for each of the customer's orders.
+         *
+         * @return Returns the items.
+         */
+        public List<Item> getItems() {
+            return items;
+        }
+
+        /**
+         * Gets the customer's totals.
+         *
+         * @return Returns the totals.
+         */
+        public Totals getTotals() {
+            return totals;
+        }
     }
 
     /**
-     * Helper method for generating the portion of the bill specific to each individual customer, which includes
-     * the customer ID followed by their orders and any specific extra ingredients added to the bill.
-     *
-     * @param gridPane Returns a GridPane representation of the customer's bill.
-     * @param customer Customer this bill is for.
-     * @param row      the current row to add this customer's bill to (used for when there is more than one customer
-     *                 on a bill).
-     * @return Returns the current row the bill is on (for use of next bill components)
+     * An order on a bill: its menu item and the extra ingredients that were charged for.
      */
-    private int addCustomerBill(GridPane gridPane, Customer customer, int row) {
-        gridPane.add(new Label("\t" + repeat("-", 20)), 0, ++row);
-        gridPane.add(new Label("\tCustomer #" + customer.getId()), 0, ++row);
-        gridPane.add(new Label("\t" + repeat("-", 20)), 0, ++row);
-
-        for (Order o : customer.getConfirmedOrders()) {
-            String name = new StringHelper().capitalize(o.getName());
-            gridPane.add(new Label("\t\t" + name + " (order #" + o.getId() + ")"), 0, ++row);
-            gridPane.add(new Label(String.format("$%.2f", o.getMenuItemPrice())), 2, row);
-
-            for (MenuIngredient i : o.getIngredients()) {
-                if (i.getExtraCost() == 0.0) continue;
-                gridPane.add(new Label("\t\t\textra " + i.toString()), 0, ++row);
-                gridPane.add(new Label(String.format("$%.2f", i.getExtraCost())), 2, row);
+    public static class Item {
+        private final int orderId;
+        private final String name;
+        private final long price;
+        private final List<Extra> extras;
+
+        /**
+         * Constructs the item of an order.
+         *
+         * @param order The order.
+         */
+        private Item(Order order) {
+            this.orderId = order.getId();
+            this.name = order.getName();
+            this.price = order.getMenuItemPriceCents();
+
+            List<Extra> extras = new ArrayList<>();
+            List<MenuIngredient> ingredients = order.getIngredients();
+            for (int i = 0; i < ingredients.size(); i++) {
+                long cost = order.getExtraCents(i);
+                if (cost != 0) extras.add(new Extra(ingredients.get(i).toString(), cost));
             }
+            this.extras = Collections.unmodifiableList(extras);
+        }
+
+        /**
+         * Gets the id of the order.
+         *
+         * @return Returns the order id.
+         */
+        public int getOrderId() {
+            return orderId;
         }
 
-        return addExtraCosts(gridPane, getCustomerTotal(customer), row, 1);
+        /**
+         * Gets the name of the menu item ordered.
+         *
+         * @return Returns the name.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Gets the price of the menu item, without extras.
+         *
+         * @return Returns the price in cents.
+         */
+        public long getPrice() {
+            return price;
+        }
+
+        /**
+         * Gets the extra ingredients charged for.
+         *
+         * @return Returns the extras.
+         */
+        public List<Extra> getExtras() {
+            return extras;
+        }
     }
 
     /**
-     * Adds the taxes and gratuity to the bill.
-     *
-     * @param gridPane Returns a GridPane representation of the final 'total' and tax section of the bill.
-     * @param subtotal Total of all cost orders on the bill before taxes.
-     * @param row      Current row index the bill is on.
-     * @param tab      Tab amount for spacing.
-     * @return Returns the new row index;
+     * An extra ingredient charged for on an order.
      */
-    private int addExtraCosts(GridPane gridPane, double subtotal, int row, int tab) {
-        gridPane.add(new Label(repeat("\t", tab) + "Subtotal"), 0, ++row);
-        gridPane.add(new Label(String.format("$%.2f", subtotal)), 2, row);
+    public static class Extra {
+        private final String name;
+        private final long cost;
 
-        gridPane.add(new Label(repeat("\t", tab) + "HST (13%)"), 0, ++row);
-        gridPane.add(new Label(String.format("$%.2f", subtotal * 0.13)), 2, row);
+        /**
+         * Constructs an extra.
+         *
+         * @param name The name of the ingredient.
+         * @param cost What was charged for it, in cents.
+         */
+        private Extra(String name, long cost) {
+            this.name = name;
+            this.cost = cost;
+        }
 
-        gridPane.add(new Label(repeat("\t", tab) + "Gratuity (15%)"), 0, ++row);
-        gridPane.add(new Label(String.format("$%.2f", subtotal * 0.15)), 2, row);
+        /**
+         * Gets the name of the ingredient.
+         *
+         * @return Returns the name.
+         */
+        public String getName() {
+            return name;
+        }
 
-        gridPane.add(new Label(repeat("\t", tab) + "Total"), 0, ++row);
-        gridPane.add(new Label(String.format("$%.2f", subtotal * 1.28)), 2, row);
+        /**
+         * Gets what was charged for the ingredient.
+         *
+         * @return Returns the cost in cents.
+         */
+        public long getCost() {
+            return cost;
+        }
+    }
 
-        gridPane.add(new Label(" "), 0, ++row);
+    /**
+     * The subtotal of a bill with its taxes and gratuity. Each is rounded to the cent, and the total is their exact
+     * sum.
+     */
+    public static class Totals {
+        private final long subtotal;
+        private final long tax;
+        private final long gratuity;
+
+        /**
+         * Works out the taxes and gratuity of a subtotal.
+         *
+         * @param subtotal The subtotal in cents.
+         */
+        private Totals(long subtotal) {
+            this.subtotal = subtotal;
+            this.tax = Money.percent(subtotal, HST);
+            this.gratuity = Money.percent(subtotal, GRATUITY);
+        }
+
+        /**
+         * Gets the total of all orders before taxes.
+         *
+         * @return Returns the subtotal in cents.
+         */
+        public long getSubtotal() {
+            return subtotal;
+        }
 
-        return row;
+        /**
+         * Gets the HST on the subtotal.
+         *
+         * @return Returns the tax in cents.
+         */
+        public long getTax() {
+            return tax;
+        }
+
+        /**
+         * Gets the gratuity on the subtotal.
+         *
+         * @return Returns the gratuity in cents.
+         */
+        public long getGratuity() {
+            return gratuity;
+        }
+
+        /**
+         * Gets the subtotal with taxes and gratuity.
+         *
+         * @return Returns the total in cents.
+         */
+        public long getTotal() {
+            return subtotal + tax + gratuity;
+        }
     }
 }
@@ -2,31 +2,44 @@ package backend;
 
 import backend.foods.Order;
 
-import java.io.Serializable;
+import java.io.*;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The Customer class contains all the information pertaining to a customer of
  * the restaurant, including the orders that the customer made and their id (id is only specific to
  * the table they are at).
  *
- * It maintains all the orders corresponding to himself in this class by observing them.
+ * It maintains all the orders corresponding to himself in this class by observing them. The orders are kept in
+ * insertion-ordered sets, so moving an order from pending to confirmed does not search a list. Customers are saved
+ * with lists of orders, as they were before.
  */
 public class Customer implements Serializable, Observer {
 
+    // Constants
+    private static final long serialVersionUID = -8564661156468378472L;
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("id", int.class),
+            new ObjectStreamField("pendingOrders", List.class),
+            new ObjectStreamField("confirmedOrders", List.class)
+    };
+
     // Instance variables
     private int id;
-    private List<Order> pendingOrders;      //orders the customer made but has not yet received
-    private List<Order> confirmedOrders;    //orders the customer has received and accepted
+    private transient LinkedHashSet<Order> pendingOrders;      //orders the customer made but has not yet received
+    private transient LinkedHashSet<Order> confirmedOrders;    //orders the customer has received and accepted
+    private transient Table table;      // the table the customer is seated at, once it has linked itself
 
     /**
      * The constructor for the Customer class.
      */
     public Customer(int id) {
         this.id = id;
-        this.confirmedOrders = new ArrayList<>();
-        this.pendingOrders = new ArrayList<>();
+        this.confirmedOrders = new LinkedHashSet<>();
+        this.pendingOrders = new LinkedHashSet<>();
     }
 
     /**
@@ -42,18 +55,18 @@ public class Customer implements Serializable, Observer {
     /**
      * Getter for pendingOrders.
      *
-     * @return Returns the pending orders of the customer.
+     * @return Returns the pending orders of the customer, in the order they were placed.
      */
-    public List<Order> getPendingOrders() {
+    public Set<Order> getPendingOrders() {
         return pendingOrders;
     }
 
     /**
      * Gets all the orders that the customer did not reject.
      *
-     * @return Returns all prepared, non-rejected orders.
+     * @return Returns all prepared, non-rejected orders, in the order they were delivered.
      */
-    public List<Order> getConfirmedOrders() {
+    public Set<Order> getConfirmedOrders() {
         return confirmedOrders;
     }
 
@@ -63,14 +76,33 @@ public class Customer implements Serializable, Observer {
      * @return Returns all pending or confirmed orders of the customer.
      */
     public List<Order> getOrders() {
-        List<Order> orders = new ArrayList<>();
-        orders.addAll(getPendingOrders());
-        orders.addAll(getConfirmedOrders());
+        List<Order> orders = new ArrayList<>(pendingOrders.size() + confirmedOrders.size());
+        orders.addAll(pendingOrders);
+        orders.addAll(confirmedOrders);
         return orders;
     }
 
     /**
-     * The customer updates its own list of pending orders and confirmed orders by observing the order.
+     * Gets the table the customer is seated at.
+     *
+     * @return Returns the table, or null if the table has not linked the customer to itself yet.
+     */
+    Table getTable() {
+        return table;
+    }
+
+    /**
+     * Sets the table the customer is seated at, so that the customer's orders are routed to it.
+     *
+     * @param table The table.
+     */
+    void setTable(Table table) {
+        this.table = table;
+    }
+
+    /**
+     * The customer updates its own list of pending orders and confirmed orders by observing the order. The table's
+     * index of which customer ordered what is updated as orders are placed and cancelled.
      *
      * @param o   The observable order.
      * @param arg The new state of the order.
@@ -81,12 +113,50 @@ public class Customer implements Serializable, Observer {
             Order order = (Order) o;
             if (arg == Order.State.PLACED) {
                 pendingOrders.add(order);
-            } else if (arg == Order.State.DELIVERED && pendingOrders.contains(order)) {
-                pendingOrders.remove(order);
+                if (table != null) table.route(order, this);
+            } else if (arg == Order.State.DELIVERED && pendingOrders.remove(order)) {
                 confirmedOrders.add(order);
             } else if (arg == Order.State.CANCEL) {
                 pendingOrders.remove(order);
+                if (table != null) table.unroute(order);
             }
         }
     }
+
+    /**
+     * Writes the customer with its orders as lists.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("id", id);
+        fields.put("pendingOrders", new ArrayList<>(pendingOrders));
+        fields.put("confirmedOrders", new ArrayList<>(confirmedOrders));
+        out.writeFields();
+    }
+
+    /**
+     * Reads the customer, moving its lists of orders into sets once the whole restaurant has been read. An order can
+     * still be partly read when the customer is (while its observers are being read), so it cannot be hashed yet.
+     *
+     * @param in The stream to read from.
+     * @throws IOException            If reading fails.
+     * @throws ClassNotFoundException If a class of the orders cannot be found.
+     */
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        id = fields.get("id", 0);
+        pendingOrders = new LinkedHashSet<>();
+        confirmedOrders = new LinkedHashSet<>();
+
+        List<Order> pending = (List<Order>) fields.get("pendingOrders", null);
+        List<Order> confirmed = (List<Order>) fields.get("confirmedOrders", null);
+        in.registerValidation(() -> {
+            if (pending != null) pendingOrders.addAll(pending);
+            if (confirmed != null) confirmedOrders.addAll(confirmed);
+        }, 0);
+    }
 }
@@ -5,10 +5,12 @@ import backend.foods.MenuIngredient;
 import backend.foods.MenuItem;
 import backend.foods.Order;
 import backend.helpers.LogManager;
+import backend.helpers.ReorderAggregator;
 import backend.helpers.RequestsManager;
 
-import java.io.Serializable;
+import java.io.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Holds Ingredients with their respective quantities.
@@ -19,52 +21,98 @@ import java.util.*;
 
 public class Inventory implements Observer, Serializable {
 
-    private static final double DEFAULT_REQUEST = 10;   // the default quantity threshold for when to request
+    // Constants
+    private static final long serialVersionUID = 3333824277930963398L;
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("ingredients", HashMap.class)   // Ingredient to quantity in inventory
+    };
 
-    private HashMap<Ingredient, Double> ingredients;    // Ingredient to quantity in inventory
+    // Instance variables
+    private transient InventoryLedger ledger;   // ingredients and their quantities, by slot
+    private transient ConcurrentHashMap<Integer, Reservation> reservations;    // order id to reserved ingredients
+    private transient MenuAvailability availability;    // portions of each menu item that can be made
 
     /**
      * Constructor for the class.
      */
     public Inventory() {
-        this.ingredients = new HashMap<>();
+        this.ledger = new InventoryLedger();
+        this.reservations = new ConcurrentHashMap<>();
+        this.availability = new MenuAvailability(ledger);
     }
 
     /**
-     * Returns the Ingredient object that the String parameter ingredientName represents, if any.
+     * The ingredients reserved for an order, by slot.
+     */
+    private static class Reservation {
+        private final int[] slots;
+        private final double[] amounts;
+
+        /**
+         * Constructs a reservation.
+         *
+         * @param slots   The slots of the ingredients.
+         * @param amounts The amount reserved of each.
+         */
+        private Reservation(int[] slots, double[] amounts) {
+            this.slots = slots;
+            this.amounts = amounts;
+        }
+    }
+
+    /**
+     * Gets the slot of an ingredient in the ledger. The name is looked up as given first, so names that are already
+     * lower case (like those of Ingredient objects) are found without creating a new string.
+     *
+     * @param ingredientName The name of the ingredient, in any case.
+     * @param create         Whether to add the ingredient with a quantity of 0 if it is not in the inventory, which is
+     *                       logged to the RestaurantStore.
+     * @return Returns the slot, or -1 if the ingredient is not in the inventory and was not created.
+     */
+    private int slot(String ingredientName, boolean create) {
+        int slot = ledger.slot(ingredientName);
+        if (slot < 0) slot = ledger.slot(ingredientName.toLowerCase());
+        if (slot < 0 && create) {
+            Ingredient ingredient = new Ingredient(ingredientName);
+            slot = ledger.add(ingredient, 0.0);
+            RestaurantStore.getInstance().stockChanged(ingredient, 0.0);
+        }
+        return slot;
+    }
+
+    /**
+     * Returns the Ingredient object that the String parameter ingredientName represents, if any. The name is looked
+     * up as given first, so names that are already lower case (like those of Ingredient objects) are found without
+     * creating a new string.
      *
      * @param ingredientName String name of ingredient requested.
      * @return Ingredient that ingredientName represents.
      */
     public Ingredient getIngredient(String ingredientName) {
-        for (Ingredient ingredient : ingredients.keySet()) {
-            if (ingredient.getName().toLowerCase().equals(ingredientName.toLowerCase())) return ingredient;
-        }
-
-        Ingredient newIngredient = new Ingredient(ingredientName);
-        ingredients.put(newIngredient, 0.0);
-        return newIngredient;
+        return ledger.getIngredient(slot(ingredientName, true));
     }
 
     /**
      * Returns the Ingredient objects currently in the Inventory.
      *
-     * @return  Inventory ingredients key sey.
+     * @return  A read-only view of the inventory's ingredients.
      */
     public Set<Ingredient> getInventoryIngredients() {
-        return ingredients.keySet();
+        return ledger.asSet();
     }
 
     /**
-     * Receives an order and decrements the required Ingredient from the Inventory. Also calls the log manager
-     * to log such event.
+     * Removes an ingredient and its stock from the inventory.
      *
-     * @param ingredientName Ingredient (String name) to be removed from the inventory.
-     * @param quantity       The quantity of ingredient that is to be removed.
-     * @return whether it was actually able to use the ingredient
+     * @param ingredient The ingredient to remove.
+     * @return Returns whether the ingredient was in the inventory.
      */
-    private boolean use(String ingredientName, double quantity) {
-        return setQuantity(ingredientName, getQuantity(ingredientName) - quantity);
+    public boolean removeIngredient(Ingredient ingredient) {
+        int slot = ledger.slot(ingredient.getName());
+        if (!ledger.remove(ingredient.getName())) return false;
+        availability.removed(slot);
+        RestaurantStore.getInstance().ingredientRemoved(ingredient);
+        return true;
     }
 
     /**
@@ -74,50 +122,265 @@ public class Inventory implements Observer, Serializable {
      * @param quantity       The quantity of ingredient that is to be added.
      */
     public boolean add(String ingredientName, double quantity) {
-        return setQuantity(ingredientName, getQuantity(ingredientName) + quantity);
+        Ingredient ingredient = getIngredient(ingredientName);
+        return setQuantity(ingredient, getQuantity(ingredient) + quantity);
     }
 
     /**
-     * Gets the quantity of the Ingredient that matches the String ingredientName.
+     * Gets the quantity of the Ingredient that matches the String ingredientName, or 0 if it is not in the inventory.
      *
      * @param ingredientName Ingredient whose quantity has to be returned
      * @return Returns the number of ingredients.
      */
     public double getQuantity(String ingredientName) {
-        return ingredients.getOrDefault(getIngredient(ingredientName), 0.0);
+        int slot = slot(ingredientName, false);
+        return slot >= 0 ? ledger.get(slot) : 0.0;
     }
 
     /**
-     * Setter for ingredient quantity for a String ingredientName that represents an Ingredient.
+     * Gets the quantity of an Ingredient, or 0 if it is not in the inventory.
+     *
+     * @param ingredient Ingredient whose quantity has to be returned
+     * @return Returns the number of ingredients.
+     */
+    public double getQuantity(Ingredient ingredient) {
+        int slot = slot(ingredient.getName(), false);
+        return slot >= 0 ? ledger.get(slot) : 0.0;
+    }
+
+    /**
+     * Setter for ingredient quantity for a String ingredientName that represents an Ingredient. An increase is
+     * counted as received stock, and taken off the ingredient's outstanding request.
      *
      * @param ingredientName The ingredient whose quantity has to be set.
      * @param quantity       The quantity to set the ingredient to.
      * @return Returns whether the set was performed successfully.
      */
     public boolean setQuantity(String ingredientName, double quantity) {
+        return setQuantity(getIngredient(ingredientName), quantity);
+    }
+
+    /**
+     * Setter for ingredient quantity. An increase is counted as received stock, and taken off the ingredient's
+     * outstanding request.
+     *
+     * @param ingredient The ingredient whose quantity has to be set, which is added to the inventory if needed.
+     * @param quantity   The quantity to set the ingredient to.
+     * @return Returns whether the set was performed successfully.
+     */
+    public boolean setQuantity(Ingredient ingredient, double quantity) {
         if (quantity >= 0) {
-            double oldQuantity = getQuantity(ingredientName);
-            ingredients.put(getIngredient(ingredientName), quantity);
-            LogManager.getInstance().log(getIngredient(ingredientName), oldQuantity,
-                    getQuantity(ingredientName));
+            int slot = slot(ingredient.getName(), true);
+            Ingredient key = ledger.getIngredient(slot);
+            double oldQuantity = ledger.set(slot, quantity);
+            availability.changed(slot);
+            LogManager.getInstance().log(key, oldQuantity, quantity);
+            RestaurantStore.getInstance().stockChanged(key, quantity);
+
+            if (quantity > oldQuantity) {
+                RequestsManager requests = RequestsManager.getInstance();
+                if (requests.getRequestedQuantity(key.getName()) > 0)
+                    requests.removeIngredient(key.getName(), quantity - oldQuantity);
+            }
 
             return true;
         } else return false;
     }
 
     /**
-     * Checks if this menuItem is feasible to make (i.e there are enough ingredients to make it)
+     * Restores an ingredient's settings and stock from the RestaurantStore's log, without logging or requesting it.
+     *
+     * @param ingredientName The name of the ingredient.
+     * @param unitCost       Its unit cost.
+     * @param threshold      Its reorder threshold.
+     * @param target         Its reorder target, or 0 for the default.
+     * @param quantity       Its quantity in the inventory.
+     */
+    void restore(String ingredientName, double unitCost, double threshold, double target, double quantity) {
+        int slot = slot(ingredientName, true);
+        Ingredient ingredient = ledger.getIngredient(slot);
+        ingredient.setUnitCost(unitCost);
+        ingredient.setThreshold(threshold);
+        ingredient.setTarget(target);
+        ledger.set(slot, quantity);
+        availability.changed(slot);
+    }
+
+    /**
+     * Gets the quantity of an Ingredient that is not reserved for placed orders.
+     *
+     * @param ingredient Ingredient whose quantity has to be returned
+     * @return Returns the number of ingredients available to new orders.
+     */
+    public double getAvailableQuantity(Ingredient ingredient) {
+        int slot = slot(ingredient.getName(), false);
+        return slot >= 0 ? ledger.getAvailable(slot) : 0.0;
+    }
+
+    /**
+     * Checks if this menuItem is feasible to make (i.e there are enough ingredients to make it), counting stock
+     * reserved for placed orders as used.
      *
      * @param menuItem menuItem to check
      * @return boolean (true if able to make)
      */
     public boolean isFeasible(MenuItem menuItem) {
         for (MenuIngredient i : menuItem.getIngredients()) {
-            if (i.getQuantity() > ingredients.getOrDefault(i.getBaseIngredient(), 0.0)) return false;
+            if (i.getQuantity() > getAvailableQuantity(i.getBaseIngredient())) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Gets the number of portions of a menu item that can be made from the stock that is not reserved. The count is
+     * kept up to date as stock changes, so this does not walk the item's ingredients, except the first time an item
+     * is asked for after it was changed.
+     *
+     * @param menuItem The menu item.
+     * @return Returns the number of portions, or Integer.MAX_VALUE if the item uses no ingredients.
+     */
+    public int getOrderableCount(MenuItem menuItem) {
+        int count = availability.get(menuItem);
+        return count >= 0 ? count : index(menuItem);
+    }
+
+    /**
+     * Indexes the items of the menu again, after the menu or the recipe of one of its items changed.
+     *
+     * @param menu The menu.
+     */
+    public void indexMenu(List<MenuItem> menu) {
+        availability.clear();
+        for (MenuItem item : menu) index(item);
+    }
+
+    /**
+     * Indexes a menu item under the slots of its ingredients. An item that needs an ingredient which is not in the
+     * inventory can make 0 portions, and is not indexed, so that it is looked up again once the ingredient is added.
+     *
+     * @param menuItem The menu item.
+     * @return Returns the number of portions of the item that can be made.
+     */
+    private int index(MenuItem menuItem) {
+        List<MenuIngredient> ingredients = menuItem.getIngredients();
+        int[] slots = new int[ingredients.size()];
+        double[] amounts = new double[ingredients.size()];
+        int size = slots(ingredients, slots, amounts);
+        if (size < 0) return 0;
+        return availability.add(menuItem, Arrays.copyOf(slots, size), Arrays.copyOf(amounts, size));
+    }
+
+    /**
+     * Looks up the slots of a list of ingredients, without adding the ones that are not in the inventory. Missing
+     * ingredients that are used in an amount of 0 or less are left out.
+     *
+     * @param ingredients The ingredients.
+     * @param slots       Filled with the slot of each ingredient found.
+     * @param amounts     Filled with the amount of each ingredient found.
+     * @return Returns the number of slots filled, or -1 if an ingredient that is needed is not in the inventory.
+     */
+    private int slots(List<MenuIngredient> ingredients, int[] slots, double[] amounts) {
+        int size = 0;
+        for (MenuIngredient ingredient : ingredients) {
+            int slot = slot(ingredient.getBaseIngredient().getName(), false);
+            if (slot < 0 && ingredient.getQuantity() > 0) return -1;
+            if (slot < 0) continue;
+            slots[size] = slot;
+            amounts[size++] = ingredient.getQuantity();
+        }
+        return size;
+    }
+
+    /**
+     * Reserves every ingredient of an order in one atomic step, if there is enough of all of them. The ingredients
+     * are taken out of stock when the order starts being prepared, and released if it is cancelled first. Safe to
+     * call from several threads: two orders can never reserve the same stock. An order that needs an ingredient which
+     * is not in the inventory is not reserved.
+     *
+     * @param order The order to reserve ingredients for.
+     * @return Returns whether the ingredients were reserved; if not, none were.
+     */
+    public boolean reserve(Order order) {
+        List<MenuIngredient> ingredients = order.getIngredients();
+        int[] slots = new int[ingredients.size()];
+        double[] amounts = new double[ingredients.size()];
+        int size = slots(ingredients, slots, amounts);
+        if (size < 0) return false;
+        slots = Arrays.copyOf(slots, size);
+        amounts = Arrays.copyOf(amounts, size);
+
+        if (!ledger.reserve(slots, amounts)) return false;
+        Reservation old = reservations.put(order.getId(), new Reservation(slots, amounts));
+        if (old != null) {
+            ledger.release(old.slots, old.amounts);
+            availability.changed(old.slots);
         }
+        availability.changed(slots);
         return true;
     }
 
+    /**
+     * Releases the ingredients reserved for an order.
+     *
+     * @param order The order.
+     */
+    private void release(Order order) {
+        Reservation reservation = reservations.remove(order.getId());
+        if (reservation != null) {
+            ledger.release(reservation.slots, reservation.amounts);
+            availability.changed(reservation.slots);
+        }
+    }
+
+    /**
+     * Takes the ingredients reserved for an order out of stock. Ingredients falling below their threshold are passed
+     * on to be reordered by reorder, from the OrderBus. While the RestaurantStore replays its log, the reservation is
+     * only dropped, since the stock it took was logged on its own.
+     *
+     * @param order The order.
+     */
+    private void commit(Order order) {
+        Reservation reservation = reservations.remove(order.getId());
+        if (reservation == null) return;
+        if (RestaurantStore.getInstance().isReplaying()) {
+            ledger.release(reservation.slots, reservation.amounts);
+            availability.changed(reservation.slots);
+            return;
+        }
+
+        double[] oldQuantities = new double[reservation.slots.length];
+        ledger.commit(reservation.slots, reservation.amounts, oldQuantities);
+        availability.changed(reservation.slots);
+        for (int i = 0; i < reservation.slots.length; i++) {
+            Ingredient ingredient = ledger.getIngredient(reservation.slots[i]);
+            if (ingredient == null) continue;
+            double quantity = ledger.get(reservation.slots[i]);
+            LogManager.getInstance().log(ingredient, oldQuantities[i], quantity);
+            RestaurantStore.getInstance().stockChanged(ingredient, quantity);
+        }
+    }
+
+    /**
+     * Passes the ingredients of orders that started being prepared on to the ReorderAggregator, if their stock is at
+     * or below their threshold. Subscribed to the OrderBus on a thread of its own, since reorders can lag behind the
+     * stock being taken; the stock is read when the events are delivered.
+     *
+     * @param events The orders' changes of state.
+     */
+    public void reorder(List<OrderEvent> events) {
+        for (OrderEvent event : events) {
+            if (event.getState() != Order.State.PREPARING) continue;
+            for (MenuIngredient menuIngredient : event.getOrder().getIngredients()) {
+                int slot = slot(menuIngredient.getBaseIngredient().getName(), false);
+                Ingredient ingredient = slot >= 0 ? ledger.getIngredient(slot) : null;
+                if (ingredient == null) continue;
+                double quantity = ledger.get(slot);
+                if (quantity <= ingredient.getThreshold())
+                    ReorderAggregator.getInstance().crossed(ingredient, quantity);
+            }
+        }
+    }
+
     /**
      * Overrides Object.toString to return String
      *
@@ -126,27 +389,64 @@ public class Inventory implements Observer, Serializable {
     @Override
     public String toString() {
         StringBuilder inventory = new StringBuilder();
-        for (Ingredient ingredient : ingredients.keySet()) {
-            inventory.append(ingredient.getName()).append(" : ").append(ingredients.get(ingredient)).append("\n");
+        for (int slot = 0; slot < ledger.end(); slot++) {
+            Ingredient ingredient = ledger.getIngredient(slot);
+            if (ingredient != null) inventory.append(ingredient.getName()).append(" : ").append(ledger.get(slot))
+                    .append("\n");
         }
         return inventory.toString();
     }
 
     /**
-     * Updates the inventory when Order's state is changed. More specifically when an order is placed. Every ingredient
-     * in the MenuItem of the order will be updated.
+     * Updates the inventory when Order's state is changed. The ingredients reserved for an order are taken out of
+     * stock when a cook starts preparing it, and released if it is cancelled before that.
      *
      * @param o   Observable order
      * @param arg state of the order
      */
     @Override
     public void update(Observable o, Order.State arg) {
-        if (o instanceof Order && arg == Order.State.PLACED) {
-            for (MenuIngredient i : ((Order) o).getIngredients()) {
-                use(i.getBaseIngredient().getName(), i.getQuantity());
+        if (o instanceof Order) {
+            if (arg == Order.State.PREPARING) commit((Order) o);
+            else if (arg == Order.State.CANCEL) release((Order) o);
+        }
+    }
+
+    /**
+     * Writes the inventory as its original field: a HashMap of ingredients to quantities.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        HashMap<Ingredient, Double> ingredients = new HashMap<>();
+        for (int slot = 0; slot < ledger.end(); slot++) {
+            Ingredient ingredient = ledger.getIngredient(slot);
+            if (ingredient != null) ingredients.put(ingredient, ledger.get(slot));
+        }
+
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("ingredients", ingredients);
+        out.writeFields();
+    }
+
+    /**
+     * Reads the inventory from its original field, and fills the ledger from it.
+     *
+     * @param in The stream to read from.
+     * @throws IOException            If reading fails.
+     * @throws ClassNotFoundException If a class of the ingredients cannot be found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        ledger = new InventoryLedger();
+        reservations = new ConcurrentHashMap<>();
+        availability = new MenuAvailability(ledger);
 
-                if (getQuantity(i.getBaseIngredient().getName()) <= i.getBaseIngredient().getThreshold())
-                    RequestsManager.getInstance().addIngredient(i.toString(), DEFAULT_REQUEST);
+        Map<Ingredient, Double> ingredients = (Map<Ingredient, Double>) fields.get("ingredients", null);
+        if (ingredients != null) {
+            for (Map.Entry<Ingredient, Double> entry : ingredients.entrySet()) {
+                if (ledger.slot(entry.getKey().getName()) < 0) ledger.add(entry.getKey(), entry.getValue());
             }
         }
     }
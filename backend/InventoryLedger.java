@@ -0,0 +1,332 @@
+package backend;
+
+import backend.foods.Ingredient;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The stock of the Inventory, kept in primitive arrays. Each ingredient is given a dense slot, and its quantity is
+ * read and written at that slot, so changing stock does not allocate. Ingredients are found by their lower case name.
+ * A slot never changes while the ledger exists; a removed ingredient leaves its slot empty.
+ * <p>
+ * Part of the stock can be reserved for orders that have been placed but not prepared yet. The ledger is safe to use
+ * from several threads: each slot is guarded by one of a fixed set of striped locks, and an operation on several
+ * ingredients takes their locks in a fixed order, so reserving the ingredients of an order is atomic without locking
+ * the whole inventory. Growing the arrays takes a lock that excludes every other operation.
+ */
+class InventoryLedger {
+
+    // Constants
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int STRIPES = 32;
+
+    // Instance variables
+    private final ConcurrentHashMap<String, Integer> slots = new ConcurrentHashMap<>();    // lower case name to slot
+    private final ReentrantReadWriteLock structure = new ReentrantReadWriteLock();
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+    private Ingredient[] ingredients = new Ingredient[INITIAL_CAPACITY];
+    private double[] quantities = new double[INITIAL_CAPACITY];
+    private double[] reserved = new double[INITIAL_CAPACITY];
+    private volatile int end;   // number of slots used, including empty ones
+
+    /**
+     * Constructs an empty ledger.
+     */
+    InventoryLedger() {
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantLock();
+    }
+
+    /**
+     * Gets the slot of an ingredient.
+     *
+     * @param name The lower case name of the ingredient.
+     * @return Returns the slot, or -1 if the ingredient is not in the ledger.
+     */
+    int slot(String name) {
+        Integer slot = slots.get(name);
+        return slot != null ? slot : -1;
+    }
+
+    /**
+     * Adds an ingredient to the ledger, unless one with the same name is already in it.
+     *
+     * @param ingredient The ingredient.
+     * @param quantity   Its quantity.
+     * @return Returns the slot of the ingredient.
+     */
+    int add(Ingredient ingredient, double quantity) {
+        structure.writeLock().lock();
+        try {
+            Integer existing = slots.get(ingredient.getName());
+            if (existing != null) return existing;
+
+            if (end == ingredients.length) {
+                ingredients = Arrays.copyOf(ingredients, end * 2);
+                quantities = Arrays.copyOf(quantities, end * 2);
+                reserved = Arrays.copyOf(reserved, end * 2);
+            }
+            ingredients[end] = ingredient;
+            quantities[end] = quantity;
+            slots.put(ingredient.getName(), end);
+            return end++;
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes an ingredient from the ledger, leaving its slot empty.
+     *
+     * @param name The lower case name of the ingredient.
+     * @return Returns whether the ingredient was in the ledger.
+     */
+    boolean remove(String name) {
+        structure.writeLock().lock();
+        try {
+            Integer slot = slots.remove(name);
+            if (slot == null) return false;
+            ingredients[slot] = null;
+            quantities[slot] = 0;
+            reserved[slot] = 0;
+            return true;
+        } finally {
+            structure.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the ingredient at a slot.
+     *
+     * @param slot The slot.
+     * @return Returns the ingredient, or null if the slot is empty.
+     */
+    Ingredient getIngredient(int slot) {
+        structure.readLock().lock();
+        try {
+            return ingredients[slot];
+        } finally {
+            structure.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the quantity at a slot, including any reserved part.
+     *
+     * @param slot The slot.
+     * @return Returns the quantity.
+     */
+    double get(int slot) {
+        lock(slot);
+        try {
+            return quantities[slot];
+        } finally {
+            unlock(slot);
+        }
+    }
+
+    /**
+     * Gets the quantity at a slot that is not reserved.
+     *
+     * @param slot The slot.
+     * @return Returns the available quantity.
+     */
+    double getAvailable(int slot) {
+        lock(slot);
+        try {
+            return quantities[slot] - reserved[slot];
+        } finally {
+            unlock(slot);
+        }
+    }
+
+    /**
+     * Sets the quantity at a slot.
+     *
+     * @param slot     The slot.
+     * @param quantity The new quantity.
+     * @return Returns the old quantity.
+     */
+    double set(int slot, double quantity) {
+        lock(slot);
+        try {
+            double old = quantities[slot];
+            quantities[slot] = quantity;
+            return old;
+        } finally {
+            unlock(slot);
+        }
+    }
+
+    /**
+     * Reserves amounts of several ingredients at once, if all of them are available.
+     *
+     * @param slots   The slots of the ingredients, each at most once.
+     * @param amounts The amount to reserve of each.
+     * @return Returns whether the amounts were reserved; if not, nothing was.
+     */
+    boolean reserve(int[] slots, double[] amounts) {
+        int[] order = lockAll(slots);
+        try {
+            for (int i = 0; i < slots.length; i++) {
+                if (amounts[i] > quantities[slots[i]] - reserved[slots[i]]) return false;
+            }
+            for (int i = 0; i < slots.length; i++) reserved[slots[i]] += amounts[i];
+            return true;
+        } finally {
+            unlockAll(order);
+        }
+    }
+
+    /**
+     * Releases amounts reserved by reserve.
+     *
+     * @param slots   The slots of the ingredients.
+     * @param amounts The amount reserved of each.
+     */
+    void release(int[] slots, double[] amounts) {
+        int[] order = lockAll(slots);
+        try {
+            for (int i = 0; i < slots.length; i++) reserved[slots[i]] = Math.max(reserved[slots[i]] - amounts[i], 0);
+        } finally {
+            unlockAll(order);
+        }
+    }
+
+    /**
+     * Takes amounts reserved by reserve out of stock. A quantity is never taken below zero, in case stock was
+     * lowered by hand after the amounts were reserved.
+     *
+     * @param slots         The slots of the ingredients.
+     * @param amounts       The amount reserved of each.
+     * @param oldQuantities Filled with the quantity of each before it was taken.
+     */
+    void commit(int[] slots, double[] amounts, double[] oldQuantities) {
+        int[] order = lockAll(slots);
+        try {
+            for (int i = 0; i < slots.length; i++) {
+                int slot = slots[i];
+                oldQuantities[i] = quantities[slot];
+                quantities[slot] = Math.max(quantities[slot] - amounts[i], 0);
+                reserved[slot] = Math.max(reserved[slot] - amounts[i], 0);
+            }
+        } finally {
+            unlockAll(order);
+        }
+    }
+
+    /**
+     * Gets the number of slots used, including empty ones. Every slot below this may be passed to getIngredient.
+     *
+     * @return Returns the end of the used slots.
+     */
+    int end() {
+        return end;
+    }
+
+    /**
+     * Gets a read-only view of the ingredients in the ledger, in slot order.
+     *
+     * @return Returns the set of ingredients.
+     */
+    AbstractSet<Ingredient> asSet() {
+        return new AbstractSet<Ingredient>() {
+            @Override
+            public Iterator<Ingredient> iterator() {
+                return new Iterator<Ingredient>() {
+                    private int next = skip(0);
+
+                    /**
+                     * Finds the first slot from the given one that is not empty.
+                     *
+                     * @param slot The slot to start from.
+                     * @return Returns the slot, or end if there is none.
+                     */
+                    private int skip(int slot) {
+                        while (slot < end && getIngredient(slot) == null) slot++;
+                        return slot;
+                    }
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < end;
+                    }
+
+                    @Override
+                    public Ingredient next() {
+                        if (next >= end) throw new NoSuchElementException();
+                        Ingredient ingredient = getIngredient(next);
+                        next = skip(next + 1);
+                        return ingredient;
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Ingredient && slot(((Ingredient) o).getName()) >= 0;
+            }
+
+            @Override
+            public int size() {
+                return slots.size();
+            }
+        };
+    }
+
+    /**
+     * Locks a single slot, keeping the arrays from being replaced while it is locked.
+     *
+     * @param slot The slot.
+     */
+    private void lock(int slot) {
+        structure.readLock().lock();
+        stripes[slot % STRIPES].lock();
+    }
+
+    /**
+     * Unlocks a slot locked by lock.
+     *
+     * @param slot The slot.
+     */
+    private void unlock(int slot) {
+        stripes[slot % STRIPES].unlock();
+        structure.readLock().unlock();
+    }
+
+    /**
+     * Locks the stripes of several slots in ascending order, so that two threads locking overlapping sets cannot
+     * deadlock.
+     *
+     * @param slots The slots.
+     * @return Returns the stripes that were locked, to be passed to unlockAll.
+     */
+    private int[] lockAll(int[] slots) {
+        int[] order = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) order[i] = slots[i] % STRIPES;
+        Arrays.sort(order);
+
+        structure.readLock().lock();
+        for (int i = 0; i < order.length; i++) {
+            if (i == 0 || order[i] != order[i - 1]) stripes[order[i]].lock();
+        }
+        return order;
+    }
+
+    /**
+     * Unlocks the stripes locked by lockAll.
+     *
+     * @param order The stripes that were locked.
+     */
+    private void unlockAll(int[] order) {
+        for (int i = order.length - 1; i >= 0; i--) {
+            if (i == 0 || order[i] != order[i - 1]) stripes[order[i]].unlock();
+        }
+        structure.readLock().unlock();
+    }
+}
@@ -0,0 +1,152 @@
+package backend;
+
+import backend.foods.MenuItem;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps how many portions of each menu item can be made from the stock in the Inventory that is not reserved. Each
+ * item is indexed under the ledger slots of its ingredients, so when the stock of an ingredient changes only the
+ * items that use it are counted again, and asking for an item's count does not walk its ingredients.
+ */
+class MenuAvailability {
+
+    // Constants
+    private static final double EPSILON = 1e-9;     // so that e.g. 0.3 of an ingredient makes 3 portions of 0.1
+
+    // Instance variables
+    private final InventoryLedger ledger;
+    private final Map<MenuItem, Recipe> recipes = new IdentityHashMap<>();     // menu item to its recipe
+    private final Map<Integer, List<MenuItem>> users = new HashMap<>();         // slot to the items using it
+
+    /**
+     * The ingredients a menu item uses, by slot, and its count of portions.
+     */
+    private static class Recipe {
+        private final int[] slots;
+        private final double[] amounts;
+        private int count;
+
+        /**
+         * Constructs a recipe.
+         *
+         * @param slots   The slots of the ingredients.
+         * @param amounts The amount of each used by a portion.
+         */
+        private Recipe(int[] slots, double[] amounts) {
+            this.slots = slots;
+            this.amounts = amounts;
+        }
+    }
+
+    /**
+     * Constructs an empty index over a ledger.
+     *
+     * @param ledger The ledger whose stock is counted.
+     */
+    MenuAvailability(InventoryLedger ledger) {
+        this.ledger = ledger;
+    }
+
+    /**
+     * Gets the number of portions of a menu item that can be made.
+     *
+     * @param item The menu item.
+     * @return Returns the count, or -1 if the item is not indexed.
+     */
+    synchronized int get(MenuItem item) {
+        Recipe recipe = recipes.get(item);
+        return recipe != null ? recipe.count : -1;
+    }
+
+    /**
+     * Indexes a menu item, replacing its recipe if it was already indexed.
+     *
+     * @param item    The menu item.
+     * @param slots   The slots of its ingredients.
+     * @param amounts The amount of each used by a portion.
+     * @return Returns the number of portions of the item that can be made.
+     */
+    synchronized int add(MenuItem item, int[] slots, double[] amounts) {
+        remove(item);
+        Recipe recipe = new Recipe(slots, amounts);
+        recipes.put(item, recipe);
+        for (int slot : slots) users.computeIfAbsent(slot, s -> new ArrayList<>()).add(item);
+        recipe.count = count(recipe);
+        return recipe.count;
+    }
+
+    /**
+     * Removes every menu item from the index.
+     */
+    synchronized void clear() {
+        recipes.clear();
+        users.clear();
+    }
+
+    /**
+     * Counts again the menu items that use any of the given slots, after their stock changed.
+     *
+     * @param slots The slots whose stock changed.
+     */
+    synchronized void changed(int... slots) {
+        for (int slot : slots) {
+            List<MenuItem> items = users.get(slot);
+            if (items == null) continue;
+            for (MenuItem item : items) {
+                Recipe recipe = recipes.get(item);
+                recipe.count = count(recipe);
+            }
+        }
+    }
+
+    /**
+     * Forgets the menu items that use a slot whose ingredient was removed, so that they are indexed again (under the
+     * slot the ingredient gets if it is added back) the next time they are asked for.
+     *
+     * @param slot The slot of the removed ingredient.
+     */
+    synchronized void removed(int slot) {
+        List<MenuItem> items = users.get(slot);
+        if (items != null) {
+            for (MenuItem item : new ArrayList<>(items)) remove(item);
+        }
+    }
+
+    /**
+     * Removes a menu item from the index.
+     *
+     * @param item The menu item.
+     */
+    private void remove(MenuItem item) {
+        Recipe recipe = recipes.remove(item);
+        if (recipe == null) return;
+        for (int slot : recipe.slots) {
+            List<MenuItem> items = users.get(slot);
+            if (items == null) continue;
+            items.removeIf(i -> i == item);     // menu items with the same name are equal
+            if (items.isEmpty()) users.remove(slot);
+        }
+    }
+
+    /**
+     * Counts the portions of a recipe that can be made from the stock that is not reserved.
+     *
+     * @param recipe The recipe.
+     * @return Returns the count, or Integer.MAX_VALUE if the recipe uses no ingredients.
+     */
+    private int count(Recipe recipe) {
+        double count = Integer.MAX_VALUE;
+        for (int i = 0; i < recipe.slots.length; i++) {
+            if (recipe.amounts[i] <= 0) continue;
+            if (ledger.getIngredient(recipe.slots[i]) == null) return 0;
+            double available = Math.max(ledger.getAvailable(recipe.slots[i]), 0);
+            count = Math.min(count, Math.floor(available / recipe.amounts[i] + EPSILON));
+        }
+        return (int) count;
+    }
+}
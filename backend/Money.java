@@ -0,0 +1,66 @@
+package backend;
+
+/**
+ * Helpers for amounts of money kept as a whole number of cents. Prices are entered and saved as dollars, and are
+ * turned into cents once, rounding half up; from then on totals, taxes and tips are added up exactly, without
+ * allocating.
+ */
+public class Money {
+
+    // Constants
+    private static final int CENTS_PER_DOLLAR = 100;
+    private static final int HALF_CENT_ERROR = 2;   // ulps that dollars * 100 can be off from the decimal amount
+
+    /**
+     * Keeps the class from being constructed, since it only has static helpers.
+     */
+    private Money() {
+    }
+
+    /**
+     * Turns an amount in dollars into cents, rounding half a cent up (away from zero), without allocating.
+     *
+     * @param dollars The amount in dollars.
+     * @return Returns the amount in cents.
+     */
+    public static long toCents(double dollars) {
+        if (dollars == 0.0 || Double.isNaN(dollars) || Double.isInfinite(dollars)) return 0;
+        double cents = Math.abs(dollars) * CENTS_PER_DOLLAR;
+        double whole = Math.floor(cents);
+        // an amount written with a half cent, like 1.005, can land a few ulps short of it once multiplied
+        if (cents - whole >= 0.5 - HALF_CENT_ERROR * Math.ulp(cents)) whole++;
+        return (long) Math.copySign(whole, dollars);
+    }
+
+    /**
+     * Turns an amount in cents into dollars.
+     *
+     * @param cents The amount in cents.
+     * @return Returns the amount in dollars.
+     */
+    public static double toDollars(long cents) {
+        return cents / (double) CENTS_PER_DOLLAR;
+    }
+
+    /**
+     * Takes a percentage of an amount, rounding half a cent up.
+     *
+     * @param cents   The amount in cents.
+     * @param percent The percentage, like 13 for 13%.
+     * @return Returns the percentage of the amount, in cents.
+     */
+    public static long percent(long cents, int percent) {
+        return Math.floorDiv(cents * percent + 50, 100);
+    }
+
+    /**
+     * Formats an amount like $1234.50, or -$0.25 if it is negative.
+     *
+     * @param cents The amount in cents.
+     * @return Returns the formatted amount.
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        return String.format("%s$%d.%02d", cents < 0 ? "-" : "", abs / CENTS_PER_DOLLAR, abs % CENTS_PER_DOLLAR);
+    }
+}
@@ -0,0 +1,85 @@
+package backend;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+/**
+ * A secondary index of an ObjectManager, grouping its objects by a key computed from each object (like the state of
+ * an order). Within a group, objects are kept in id order. Reads do not lock; changes are serialized.
+ *
+ * @param <T> The type of the objects indexed.
+ * @param <K> The type of the key.
+ */
+class ObjectIndex<T, K> {
+
+    // Instance variables
+    private final Function<T, K> key;
+    private final ConcurrentHashMap<K, ConcurrentSkipListMap<Integer, T>> groups = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, K> keys = new ConcurrentHashMap<>();  // id to the key it is grouped by
+
+    /**
+     * Constructs an empty index.
+     *
+     * @param key Computes the key of an object.
+     */
+    ObjectIndex(Function<T, K> key) {
+        this.key = key;
+    }
+
+    /**
+     * Adds an object to the index, or moves it to the group of its current key. Objects with a null key are not
+     * indexed.
+     *
+     * @param id  The id of the object.
+     * @param obj The object.
+     */
+    synchronized void put(int id, T obj) {
+        K newKey = key.apply(obj);
+        K oldKey = keys.get(id);
+        if (newKey != null && newKey.equals(oldKey)) return;
+
+        remove(id);
+        if (newKey != null) {
+            keys.put(id, newKey);
+            groups.computeIfAbsent(newKey, k -> new ConcurrentSkipListMap<>()).put(id, obj);
+        }
+    }
+
+    /**
+     * Removes an object from the index.
+     *
+     * @param id The id of the object.
+     */
+    synchronized void remove(int id) {
+        K oldKey = keys.remove(id);
+        if (oldKey != null) {
+            Map<Integer, T> group = groups.get(oldKey);
+            if (group != null) group.remove(id);
+        }
+    }
+
+    /**
+     * Gets the objects with the given key, in id order.
+     *
+     * @param value The key.
+     * @return Returns a live view of the objects with that key.
+     */
+    Collection<T> get(K value) {
+        Map<Integer, T> group = groups.get(value);
+        return group != null ? group.values() : Collections.emptyList();
+    }
+
+    /**
+     * Gets every key that has been indexed.
+     *
+     * @return Returns a live view of the keys.
+     */
+    Set<K> getKeys() {
+        return groups.keySet();
+    }
+}
@@ -1,32 +1,127 @@
 package backend;
 
-import java.io.Serializable;
+import java.io.*;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntFunction;
 import java.util.function.Predicate;
 
+/**
+ * Holds objects by id. The manager is safe to use from several threads: ids come from an atomic sequence, so no two
+ * objects are ever given the same id, and queries read the objects without locking. It is serialized in the same
+ * form as before it was made thread-safe, so existing saves still load.
+ * <p>
+ * Objects are indexed by id and by class. Subclasses can declare secondary indexes on other keys (see
+ * declareIndexes), which are kept up to date as objects are added and removed, and when reindex is called after an
+ * object's key changes. Each change to an id updates the indexes while holding that id's entry in the map, so a
+ * concurrent change to the same id cannot leave an index pointing at an object that was removed. Indexes are not
+ * serialized; they are rebuilt when the manager is loaded.
+ *
+ * @param <T> The type of the objects held.
+ */
 public class ObjectManager<T> implements Serializable {
 
+    // Constants
+    private static final long serialVersionUID = -3764296131945490788L;
+    private static final ObjectStreamField[] serialPersistentFields = {
+            new ObjectStreamField("count", int.class),
+            new ObjectStreamField("objects", HashMap.class)
+    };
+    private static final Function<Object, Class<?>> CLASS = Object::getClass;
+
     // Instance variables
-    private int count = 0;
-    private HashMap<Integer, T> objects;
+    private transient AtomicInteger count;
+    private transient ConcurrentHashMap<Integer, T> objects;
+    private transient ConcurrentHashMap<Function<T, ?>, ObjectIndex<T, ?>> indexes;
 
     /**
      * Constructs a new object manager instance.
      */
     public ObjectManager() {
-        objects = new HashMap<>();
+        count = new AtomicInteger();
+        objects = new ConcurrentHashMap<>();
+        indexes = new ConcurrentHashMap<>();
+        declareIndexes();
+    }
+
+    /**
+     * Declares the secondary indexes of the manager with addIndex. Called on construction and after loading, so it
+     * must not depend on instance fields of a subclass. Overriding methods must call this one.
+     */
+    protected void declareIndexes() {
+        addIndex((Function<T, Class<?>>) (Function) CLASS);
+    }
+
+    /**
+     * Adds a secondary index on a key, indexing every object already held.
+     *
+     * @param key The function computing the key, which also identifies the index in queries.
+     * @param <K> The type of the key.
+     */
+    protected final <K> void addIndex(Function<T, K> key) {
+        ObjectIndex<T, K> index = new ObjectIndex<>(key);
+        for (Map.Entry<Integer, T> entry : objects.entrySet()) index.put(entry.getKey(), entry.getValue());
+        indexes.put(key, index);
     }
 
     /**
-     * Gets the id for the next object to be added.
+     * Updates the indexes of an object whose key has changed.
+     *
+     * @param id The id of the object.
+     */
+    public void reindex(int id) {
+        objects.computeIfPresent(id, (key, obj) -> {
+            for (ObjectIndex<T, ?> index : indexes.values()) index.put(id, obj);
+            return obj;
+        });
+    }
+
+    /**
+     * Gets the id for the next object to be added. Another thread may take this id first, so use reserveId or
+     * createObject to get an id that is guaranteed to be unique.
      *
      * @return Returns the current count of objects + 1.
      */
     public int getNextId() {
-        return count + 1;
+        return count.get() + 1;
+    }
+
+    /**
+     * Reserves a new id, for an object that will be added later with addObject(id, obj).
+     *
+     * @return Returns an id that no other object will be given.
+     */
+    public int reserveId() {
+        return count.incrementAndGet();
+    }
+
+    /**
+     * Restores the id count, e.g. when loading the manager from a snapshot. Ids already given out are kept.
+     *
+     * @param count The number of ids given out.
+     */
+    void restoreCount(int count) {
+        this.count.accumulateAndGet(count, Math::max);
+    }
+
+    /**
+     * Creates an object with a new id and adds it to the manager in one step.
+     *
+     * @param factory Creates the object, given its id.
+     * @param <K>     The type of the created object.
+     * @return Returns the created object.
+     */
+    public <K extends T> K createObject(IntFunction<K> factory) {
+        int id = reserveId();
+        K obj = factory.apply(id);
+        addObject(id, obj);
+        return obj;
     }
 
     /**
@@ -35,7 +130,24 @@ public class ObjectManager<T> implements Serializable {
      * @param obj The object to be added.
      */
     public void addObject(T obj) {
-        objects.put(++count, obj);
+        addObject(reserveId(), obj);
+    }
+
+    /**
+     * Add an object to the manager under an id from reserveId.
+     *
+     * @param id  The id of the object.
+     * @param obj The object to be added.
+     */
+    public void addObject(int id, T obj) {
+        objects.compute(id, (key, previous) -> {
+            for (ObjectIndex<T, ?> index : indexes.values()) {
+                if (previous != null && previous != obj) index.remove(id);
+                index.put(id, obj);
+            }
+            count.accumulateAndGet(id, Math::max);
+            return obj;
+        });
     }
 
     /**
@@ -44,7 +156,10 @@ public class ObjectManager<T> implements Serializable {
      * @param id The id of the object to be removed.
      */
     public void removeObject(int id) {
-        if (objects.containsKey(id)) objects.remove(id);
+        objects.computeIfPresent(id, (key, obj) -> {
+            for (ObjectIndex<T, ?> index : indexes.values()) index.remove(id);
+            return null;
+        });
     }
 
     /**
@@ -65,7 +180,7 @@ public class ObjectManager<T> implements Serializable {
     public List<T> getObjects(Predicate<T> predicate) {
         List<T> objs = new ArrayList<>();
         for (T obj : objects.values()) {
-            if (obj != null && predicate.test(obj)) objs.add(obj);
+            if (predicate.test(obj)) objs.add(obj);
         }
         return objs;
     }
@@ -80,12 +195,65 @@ public class ObjectManager<T> implements Serializable {
      */
     public <K extends T> List<K> getObjects(Predicate<T> predicate, Class<K> type) {
         List<K> objs = new ArrayList<>();
-        for (T obj : objects.values()) {
-            if (predicate.test(obj) && type.isInstance(obj)) objs.add((K) obj);
+        ObjectIndex<T, Class<?>> classes = (ObjectIndex<T, Class<?>>) indexes.get(CLASS);
+        for (Class<?> cls : classes.getKeys()) {
+            if (!type.isAssignableFrom(cls)) continue;
+            for (T obj : classes.get(cls)) {
+                if (predicate.test(obj)) objs.add((K) obj);
+            }
         }
         return objs;
     }
 
+    /**
+     * Get all the objects of a particular class, using the class index.
+     *
+     * @param type The class of the type of objects you want to return.
+     * @param <K>  The type parameter for the returned objects.
+     * @return Returns all the objects in the manager of type K.
+     */
+    public <K extends T> List<K> getObjects(Class<K> type) {
+        return getObjects(obj -> true, type);
+    }
+
+    /**
+     * Get all the objects with the given key in a secondary index, in id order. If there is no index on the key,
+     * every object is checked instead.
+     *
+     * @param key   The function computing the key, as passed to addIndex.
+     * @param value The key to look up.
+     * @param <K>   The type of the key.
+     * @return Returns a list of the objects with that key.
+     */
+    public <K> List<T> getIndexed(Function<T, K> key, K value) {
+        ObjectIndex<T, K> index = (ObjectIndex<T, K>) indexes.get(key);
+        if (index == null) return getObjects(obj -> value.equals(key.apply(obj)));
+        return new ArrayList<>(index.get(value));
+    }
+
+    /**
+     * Gets the object with the given id.
+     *
+     * @param id The id of the object.
+     * @return Returns the object, or null if there is none with that id.
+     */
+    public T getObject(int id) {
+        return objects.get(id);
+    }
+
+    /**
+     * Gets the object with the given id if it is of the given type.
+     *
+     * @param id   The id of the object.
+     * @param type The class of the type of object you want to return.
+     * @param <K>  The type parameter for the returned object.
+     * @return Returns the object, or null if there is no object of that type with that id.
+     */
+    public <K extends T> K getObject(int id, Class<K> type) {
+        T obj = objects.get(id);
+        return type.isInstance(obj) ? (K) obj : null;
+    }
+
     /**
      * Gets a single object that satisfies the provided predicate.
      *
@@ -93,8 +261,10 @@ public class ObjectManager<T> implements Serializable {
      * @return Returns a single object that satisfies the predicate.
      */
     public T getObject(Predicate<T> predicate) {
-        List<T> objs = getObjects(predicate);
-        return objs.size() > 0 ? objs.get(0) : null;
+        for (T obj : objects.values()) {
+            if (predicate.test(obj)) return obj;
+        }
+        return null;
     }
 
     /**
@@ -110,4 +280,40 @@ public class ObjectManager<T> implements Serializable {
         if (type.isInstance(obj)) return (K) obj;
         else return null;
     }
-}
\ No newline at end of file
+
+    /**
+     * Writes the manager as its original fields: an int count and a HashMap of objects.
+     *
+     * @param out The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("count", count.get());
+        fields.put("objects", new HashMap<>(objects));
+        out.writeFields();
+    }
+
+    /**
+     * Reads the manager from its original fields.
+     *
+     * @param in The stream to read from.
+     * @throws IOException            If reading fails.
+     * @throws ClassNotFoundException If a class of the objects cannot be found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        count = new AtomicInteger(fields.get("count", 0));
+        objects = new ConcurrentHashMap<>();
+
+        Map<Integer, T> saved = (Map<Integer, T>) fields.get("objects", null);
+        if (saved != null) {
+            for (Map.Entry<Integer, T> entry : saved.entrySet()) {
+                if (entry.getKey() != null && entry.getValue() != null) objects.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        indexes = new ConcurrentHashMap<>();
+        declareIndexes();
+    }
+}
@@ -11,6 +11,9 @@ import java.util.List;
  */
 public class Observable implements Serializable {
 
+    // Constants
+    private static final long serialVersionUID = -8848135599163239084L;
+
     // Instance variables
     private List<Observer> observers;
 
@@ -24,6 +27,11 @@ public class Observable implements Serializable {
         observers.add(o);
     }
 
+    // Gets the observers in the order they were added, so that the RestaurantCodec can save links to them.
+    List<Observer> getObservers() {
+        return observers;
+    }
+
     // Loops through all observers and updates them with the new state of the order.
     protected void notifyObservers(Order.State args) {
         for (Observer o : observers) {
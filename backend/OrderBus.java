@@ -0,0 +1,209 @@
+package backend;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The OrderBus is a Singleton class that publishes every change in an order's state to its subscribers. Unlike the
+ * observers of an order, which keep the restaurant's lists of orders up to date and are called before setState
+ * returns, a subscriber can choose to be called on its own background thread, so that work like writing to the event
+ * log does not hold up the employee who changed the order.
+ * <p>
+ * Each subscriber receives events in the order they were published, so the events of one order are never seen out of
+ * order. An asynchronous subscriber is given every event that is waiting for it at once, so one that falls behind
+ * catches up in a few large batches instead of many small ones. While the bus is muted, as it is while the
+ * RestaurantStore recovers the restaurant, nothing is published, since those changes happened before.
+ * <p>
+ * Side effects that the next screen needs straight away (stock, the restaurant's, customers' and employees' lists of
+ * orders) stay with the order's observers. Those that can lag behind, like writing the event log and requesting
+ * ingredients that ran low, are subscribers called on their own threads.
+ */
+public class OrderBus {
+
+    /**
+     * How a subscriber is called.
+     */
+    public enum Dispatch {
+        SYNC,   // on the thread that changed the order, before setState returns
+        ASYNC   // on a background thread of the subscriber's own
+    }
+
+    /**
+     * Receives the events published on the bus.
+     */
+    public interface Subscriber {
+
+        /**
+         * Receives a batch of events, in the order they were published.
+         *
+         * @param events The events.
+         */
+        void deliver(List<OrderEvent> events);
+    }
+
+    // Constants
+    private static final int BATCH_SIZE = 256;              // most events delivered to an async subscriber at once
+    private static final long SHUTDOWN_TIMEOUT = 5000;      // milliseconds to wait for each async subscriber
+    private static final OrderEvent END_OF_STREAM = new OrderEvent(null, null, null);
+
+    // Singleton instance
+    private static OrderBus instance = new OrderBus();
+
+    // Instance variables
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean muted;
+
+    /**
+     * Returns the OrderBus instance.
+     *
+     * @return The OrderBus.
+     */
+    public static OrderBus getInstance() {
+        return instance;
+    }
+
+    /**
+     * Constructs a bus with no subscribers.
+     */
+    private OrderBus() {
+    }
+
+    /**
+     * A subscriber and, if it is asynchronous, the queue and thread it is called from.
+     */
+    private static class Subscription {
+        private final Subscriber subscriber;
+        private final BlockingQueue<OrderEvent> queue;
+        private final Thread thread;
+
+        /**
+         * Subscribes a subscriber, starting its thread if it is asynchronous.
+         *
+         * @param subscriber The subscriber.
+         * @param dispatch   How it is called.
+         */
+        private Subscription(Subscriber subscriber, Dispatch dispatch) {
+            this.subscriber = subscriber;
+            if (dispatch == Dispatch.ASYNC) {
+                queue = new LinkedBlockingQueue<>();
+                thread = new Thread(this::run, "order-bus");
+                thread.setDaemon(true);
+                thread.start();
+            } else {
+                queue = null;
+                thread = null;
+            }
+        }
+
+        /**
+         * Delivers an event, or queues it for the subscriber's thread.
+         *
+         * @param event The event.
+         */
+        private void publish(OrderEvent event) {
+            if (queue != null) queue.add(event);
+            else deliver(Collections.singletonList(event));
+        }
+
+        /**
+         * Delivers a batch of events, keeping a failing subscriber from stopping the ones after it.
+         *
+         * @param events The events.
+         */
+        private void deliver(List<OrderEvent> events) {
+            try {
+                subscriber.deliver(events);
+            } catch (RuntimeException ignored) {
+            }
+        }
+
+        /**
+         * The loop of an asynchronous subscriber's thread. Takes every waiting event off the queue, up to a batch,
+         * and delivers them together, until the end of the stream is reached.
+         */
+        private void run() {
+            List<OrderEvent> batch = new ArrayList<>();
+            try {
+                while (true) {
+                    batch.add(queue.take());
+                    queue.drainTo(batch, BATCH_SIZE - 1);
+
+                    boolean end = batch.remove(END_OF_STREAM);
+                    if (!batch.isEmpty()) deliver(batch);
+                    if (end) return;
+                    batch = new ArrayList<>();
+                }
+            } catch (InterruptedException ignored) {
+            }
+        }
+
+        /**
+         * Delivers every queued event and stops the subscriber's thread.
+         */
+        private void stop() {
+            if (queue == null) return;
+            queue.add(END_OF_STREAM);
+            try {
+                thread.join(SHUTDOWN_TIMEOUT);
+            } catch (InterruptedException ignored) {
+            }
+        }
+    }
+
+    /**
+     * Subscribes to every order's changes of state.
+     *
+     * @param subscriber The subscriber.
+     * @param dispatch   Whether it is called on the thread that changed the order, or on a thread of its own.
+     */
+    public void subscribe(Subscriber subscriber, Dispatch dispatch) {
+        subscriptions.add(new Subscription(subscriber, dispatch));
+    }
+
+    /**
+     * Unsubscribes a subscriber, delivering any events still queued for it first.
+     *
+     * @param subscriber The subscriber.
+     */
+    public void unsubscribe(Subscriber subscriber) {
+        for (Subscription subscription : subscriptions) {
+            if (subscription.subscriber == subscriber) {
+                subscriptions.remove(subscription);
+                subscription.stop();
+            }
+        }
+    }
+
+    /**
+     * Publishes a change in an order's state to every subscriber.
+     *
+     * @param event The event.
+     */
+    public void publish(OrderEvent event) {
+        if (subscriptions.isEmpty() || muted) return;
+        for (Subscription subscription : subscriptions) subscription.publish(event);
+    }
+
+    /**
+     * Mutes or unmutes the bus. Events published while it is muted are dropped.
+     *
+     * @param muted Whether to mute the bus.
+     */
+    public void setMuted(boolean muted) {
+        this.muted = muted;
+    }
+
+    /**
+     * Delivers every queued event and stops the threads of asynchronous subscribers. Called when the application
+     * shuts down.
+     */
+    public void shutdown() {
+        for (Subscription subscription : subscriptions) subscription.stop();
+        subscriptions.clear();
+    }
+}
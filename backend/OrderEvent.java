@@ -0,0 +1,89 @@
+package backend;
+
+import backend.employees.Employee;
+import backend.foods.Order;
+
+/**
+ * An order changing state, as published on the OrderBus. The state, the order's price and notes, and the time are taken
+ * when the event happens, so subscribers that are called later on another thread still see them as they were.
+ */
+public class OrderEvent {
+
+    // Instance variables
+    private final Order order;
+    private final Order.State state;
+    private final Employee employee;
+    private final long priceCents;
+    private final String notes;
+    private final long time;
+
+    /**
+     * Constructs an event for an order that just changed state.
+     *
+     * @param order    The order.
+     * @param state    Its new state.
+     * @param employee The employee who changed it, or null if it was not changed by an employee.
+     */
+    public OrderEvent(Order order, Order.State state, Employee employee) {
+        this.order = order;
+        this.state = state;
+        this.employee = employee;
+        this.priceCents = order != null ? order.getPriceCents() : 0;
+        this.notes = order != null ? order.getNotes() : "";
+        this.time = System.currentTimeMillis();
+    }
+
+    /**
+     * Gets the order that changed state.
+     *
+     * @return Returns the order.
+     */
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * Gets the state the order changed to.
+     *
+     * @return Returns the state.
+     */
+    public Order.State getState() {
+        return state;
+    }
+
+    /**
+     * Gets the employee who changed the order's state.
+     *
+     * @return Returns the employee, or null if it was not changed by an employee.
+     */
+    public Employee getEmployee() {
+        return employee;
+    }
+
+    /**
+     * Gets the total price of the order when it changed state.
+     *
+     * @return Returns the price in cents.
+     */
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    /**
+     * Gets the notes of the order when it changed state.
+     *
+     * @return Returns the notes.
+     */
+    public String getNotes() {
+        return notes;
+    }
+
+    /**
+     * Gets when the order changed state.
+     *
+     * @return Returns the time in milliseconds since the epoch.
+     */
+    public long getTime() {
+        return time;
+    }
+}
@@ -1,8 +1,12 @@
 package backend;
 
 import backend.foods.Order;
+import backend.helpers.OrderArchive;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * This class managers holds and managers orders of the entire restaurant. It helps users in the restaurant know
@@ -10,13 +14,26 @@ import java.util.List;
  */
 public class OrderManager extends ObjectManager<Order> implements Observer {
 
+    // Constants
+    private static final long serialVersionUID = -2632873830882815137L;
+    private static final Function<Order, Order.State> STATE = Order::getState;
+
+    /**
+     * Declares the index of orders by state, which the pending and remake queues are read from.
+     */
+    @Override
+    protected void declareIndexes() {
+        super.declareIndexes();
+        addIndex(STATE);
+    }
+
     /**
      * Gets a list of any orders that are still pending (have not begun to be prepared by a cook) in the entire
      * restaurant.
      * @return a list of the pending orders.
      */
     public List<Order> getPendingOrders() {
-        return getObjects(o -> o.getState() == Order.State.PLACED);
+        return getIndexed(STATE, Order.State.PLACED);
     }
 
     /**
@@ -25,12 +42,36 @@ public class OrderManager extends ObjectManager<Order> implements Observer {
      * @return a list of the orders needed to be remade.
      */
     public List<Order> getRemakeOrders() {
-        return getObjects(o -> o.getState() == Order.State.REMAKE);
+        return getIndexed(STATE, Order.State.REMAKE);
+    }
+
+    /**
+     * Moves delivered orders out of the manager into the OrderArchive. Orders that are not delivered are kept.
+     *
+     * @param orders The orders to archive, usually those of a table that was just billed.
+     * @return Returns the number of orders that were archived.
+     */
+    public int archive(Collection<Order> orders) {
+        List<Order> delivered = new ArrayList<>();
+        for (Order order : orders) {
+            if (order.getState() == Order.State.DELIVERED) delivered.add(order);
+        }
+
+        OrderArchive archive = OrderArchive.getInstance();
+        archive.archive(delivered);
+        int archived = 0;
+        for (Order order : delivered) {
+            if (archive.contains(order.getId())) {
+                removeObject(order.getId());
+                archived++;
+            }
+        }
+        return archived;
     }
 
     /**
      * Updates when there is a change in an Order. If an order is placed add it to pendingOrders. When an order is
-     * canceled it is removed from the system.
+     * canceled it is removed from the system. Any other change moves the order to the index of its new state.
      *
      * @param o   The order that changed.
      * @param arg State
@@ -40,9 +81,11 @@ public class OrderManager extends ObjectManager<Order> implements Observer {
         if (o instanceof Order) {
             Order order = (Order) o;
             if (arg == Order.State.PLACED) {
-                addObject(order);
+                addObject(order.getId(), order);
             } else if (arg == Order.State.CANCEL) {
                 removeObject(order.getId());
+            } else {
+                reindex(order.getId());
             }
         }
     }
@@ -2,10 +2,13 @@ package backend;
 
 import backend.employees.Employee;
 import backend.foods.MenuItem;
+import backend.foods.Order;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * The Restaurant class handles matters relating to the Employees, MenuItems, Orders, and Inventory,
@@ -14,6 +17,9 @@ import java.util.List;
 
 public class Restaurant implements Serializable {
 
+    // Constants
+    private static final long serialVersionUID = -7471034869514399605L;
+
     // Instance variables
     private ObjectManager<Employee> employeeManager;
     private ObjectManager<Table> tableManager;
@@ -79,4 +85,41 @@ public class Restaurant implements Serializable {
     public List<MenuItem> getMenu() {
         return menu;
     }
-}
\ No newline at end of file
+
+    /**
+     * Indexes the menu's availability again and logs the whole menu. Called after the menu or the recipe of one of
+     * its items is edited.
+     */
+    public void menuChanged() {
+        inventory.indexMenu(menu);
+        RestaurantStore.getInstance().menuChanged();
+    }
+
+    /**
+     * Clears the customers from a table after it was billed and archives its orders, then logs it. The table is
+     * cleared before it is logged, so that a snapshot taken when it is logged does not still hold the customers.
+     *
+     * @param table The table that was billed.
+     */
+    public void billed(Table table) {
+        List<Order> orders = table.getOrders();
+        table.billed();
+        orderManager.archive(orders);
+        RestaurantStore.getInstance().billed(table);
+    }
+
+    /**
+     * Archives every delivered order that is no longer at a table, i.e. whose table has been billed. This moves
+     * orders left behind by earlier versions, which never removed them, out of the order manager.
+     *
+     * @return Returns the number of orders that were archived.
+     */
+    public int archiveBilledOrders() {
+        Set<Integer> seated = new HashSet<>();
+        for (Table table : tableManager.getObjects()) {
+            for (Order order : table.getOrders()) seated.add(order.getId());
+        }
+        return orderManager.archive(orderManager.getObjects(o -> o.getState() == Order.State.DELIVERED &&
+                !seated.contains(o.getId())));
+    }
+}
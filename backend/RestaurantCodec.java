@@ -0,0 +1,537 @@
+package backend;
+
+import backend.employees.Cook;
+import backend.employees.Employee;
+import backend.employees.EmployeeFactory;
+import backend.employees.Manager;
+import backend.employees.Server;
+import backend.foods.Ingredient;
+import backend.foods.MenuIngredient;
+import backend.foods.MenuItem;
+import backend.foods.Order;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Reads and writes a Restaurant in a compact binary format, used for the snapshots of the RestaurantStore. Unlike
+ * Java serialization, no class descriptors are written, and an order's observers are not written as objects: each is
+ * saved as a short link (the order manager, the inventory, an employee id, or a customer's table and position), and
+ * the links are rebuilt on load. Every string is written once in a string table and referred to by index.
+ * <p>
+ * The format starts with a magic number and a version. A new version must be added, not an existing one changed,
+ * and read keeps reading every older version.
+ */
+public class RestaurantCodec {
+
+    // Constants
+    private static final int MAGIC = 0x52535443;   // "RSTC"
+    private static final int VERSION = 1;
+
+    // Observer links
+    private static final int ORDER_MANAGER = 0;
+    private static final int INVENTORY = 1;
+    private static final int EMPLOYEE = 2;
+    private static final int CUSTOMER = 3;
+
+    /**
+     * Returns whether a stream starts with this format, without consuming it.
+     *
+     * @param in A stream supporting mark and reset.
+     * @return Returns whether the stream holds a restaurant written by this codec.
+     * @throws IOException If reading fails.
+     */
+    public static boolean matches(InputStream in) throws IOException {
+        in.mark(4);
+        try {
+            return new DataInputStream(in).readInt() == MAGIC;
+        } catch (EOFException e) {
+            return false;
+        } finally {
+            in.reset();
+        }
+    }
+
+    /**
+     * Writes a restaurant.
+     *
+     * @param restaurant The restaurant.
+     * @param output     The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    public static void write(Restaurant restaurant, OutputStream output) throws IOException {
+        new Writer(restaurant).write(output);
+    }
+
+    /**
+     * Reads a restaurant.
+     *
+     * @param input The stream to read from.
+     * @return Returns the restaurant.
+     * @throws IOException If reading fails, or the stream is not in a known version of the format.
+     */
+    public static Restaurant read(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != MAGIC) throw new IOException("Not a restaurant snapshot");
+        int version = in.readInt();
+        if (version != VERSION) throw new IOException("Unknown snapshot version " + version);
+        return new Reader(in).read();
+    }
+
+    /**
+     * Gets the reorder target of an ingredient if one was set, as opposed to the default derived from its threshold.
+     *
+     * @param ingredient The ingredient.
+     * @return Returns the target that was set, or 0 if it is the default.
+     */
+    static double getSetTarget(Ingredient ingredient) {
+        return ingredient.getTarget() != ingredient.getDefaultTarget() ? ingredient.getTarget() : 0;
+    }
+
+    /**
+     * Gets the type of an employee, as given to the EmployeeFactory.
+     *
+     * @param employee The employee.
+     * @return Returns the type.
+     */
+    static String getType(Employee employee) {
+        if (employee instanceof Cook) return "cook";
+        if (employee instanceof Server) return "server";
+        if (employee instanceof Manager) return "manager";
+        return "";
+    }
+
+    /**
+     * Writes one restaurant. The body is written first, so that the string table is complete before it is written.
+     */
+    private static class Writer {
+
+        private final Restaurant restaurant;
+        private final Map<String, Integer> strings = new HashMap<>();
+        private final List<String> stringTable = new ArrayList<>();
+        private final Map<Ingredient, Integer> ingredients = new IdentityHashMap<>();
+        private final List<Ingredient> ingredientTable = new ArrayList<>();
+        private final Map<Customer, int[]> customers = new IdentityHashMap<>();   // customer to table id and index
+        private final Map<Integer, Order> orders = new LinkedHashMap<>();
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        /**
+         * Constructs a writer.
+         *
+         * @param restaurant The restaurant to write.
+         */
+        private Writer(Restaurant restaurant) {
+            this.restaurant = restaurant;
+            this.out = new DataOutputStream(body);
+        }
+
+        /**
+         * Writes the restaurant.
+         *
+         * @param output The stream to write to.
+         * @throws IOException If writing fails.
+         */
+        private void write(OutputStream output) throws IOException {
+            Inventory inventory = restaurant.getInventory();
+            for (Ingredient i : inventory.getInventoryIngredients()) ingredient(i);
+            for (MenuItem item : restaurant.getMenu()) {
+                for (MenuIngredient i : item.getIngredients()) ingredient(i.getBaseIngredient());
+            }
+            collectOrders();
+            for (Order order : orders.values()) {
+                for (MenuIngredient i : order.getIngredients()) ingredient(i.getBaseIngredient());
+            }
+
+            // Ingredients and their stock
+            writeInt(ingredientTable.size());
+            for (Ingredient i : ingredientTable) {
+                writeString(i.getName());
+                out.writeDouble(i.getUnitCost());
+                out.writeDouble(i.getThreshold());
+                out.writeDouble(getSetTarget(i));
+                boolean stocked = inventory.getInventoryIngredients().contains(i);
+                out.writeBoolean(stocked);
+                if (stocked) out.writeDouble(inventory.getQuantity(i.getName()));
+            }
+
+            // Menu
+            writeInt(restaurant.getMenu().size());
+            for (MenuItem item : restaurant.getMenu()) {
+                writeString(item.getName());
+                out.writeDouble(item.getPrice());
+                writeIngredients(item.getIngredients());
+            }
+
+            // Employees
+            ObjectManager<Employee> employees = restaurant.getEmployeeManager();
+            writeInt(employees.getNextId() - 1);
+            writeInt(employees.getObjects().size());
+            for (Employee e : employees.getObjects()) {
+                writeInt(e.getId());
+                writeString(getType(e));
+                writeString(e.getName());
+            }
+
+            // Tables and their customers
+            ObjectManager<Table> tables = restaurant.getTableManager();
+            writeInt(tables.getNextId() - 1);
+            writeInt(tables.getObjects().size());
+            for (Table table : tables.getObjects()) {
+                writeInt(table.getId());
+                writeInt(table.getCustomers().size());
+                for (Customer c : table.getCustomers()) writeInt(c.getId());
+            }
+
+            // Orders and their observers
+            writeInt(orders.size());
+            for (Order order : orders.values()) {
+                writeInt(order.getId());
+                writeString(order.getName());
+                out.writeDouble(order.getMenuItemPrice());
+                writeString(order.getNotes());
+                out.writeByte(order.getState().ordinal());
+                writeIngredients(order.getIngredients());
+                for (MenuIngredient i : order.getIngredients()) out.writeDouble(i.getQuantity());
+                writeLinks(((Observable) order).getObservers());
+            }
+
+            // Lists of orders, by employee and by table
+            for (Employee e : employees.getObjects()) {
+                writeInt(e.getId());
+                writeOrders(e.getOrders());
+            }
+            for (Table table : tables.getObjects()) {
+                writeInt(table.getId());
+                for (Customer c : table.getCustomers()) {
+                    writeOrders(c.getPendingOrders());
+                    writeOrders(c.getConfirmedOrders());
+                }
+            }
+            OrderManager orderManager = restaurant.getOrderManager();
+            writeInt(orderManager.getNextId() - 1);
+            writeOrders(orderManager.getObjects());
+
+            out.flush();
+            DataOutputStream header = new DataOutputStream(output);
+            header.writeInt(MAGIC);
+            header.writeInt(VERSION);
+            header.writeInt(stringTable.size());
+            for (String s : stringTable) header.writeUTF(s);
+            body.writeTo(header);
+            header.flush();
+        }
+
+        /**
+         * Collects every order held by the order manager, a customer or an employee, and numbers the customers.
+         */
+        private void collectOrders() {
+            for (Order order : restaurant.getOrderManager().getObjects()) orders.put(order.getId(), order);
+            for (Table table : restaurant.getTableManager().getObjects()) {
+                for (int i = 0; i < table.getCustomers().size(); i++) {
+                    Customer c = table.getCustomers().get(i);
+                    customers.put(c, new int[]{table.getId(), i});
+                    for (Order order : c.getOrders()) orders.putIfAbsent(order.getId(), order);
+                }
+            }
+            for (Employee e : restaurant.getEmployeeManager().getObjects()) {
+                for (Order order : e.getOrders()) orders.putIfAbsent(order.getId(), order);
+            }
+        }
+
+        /**
+         * Adds an ingredient to the ingredient table.
+         *
+         * @param ingredient The ingredient.
+         */
+        private void ingredient(Ingredient ingredient) {
+            if (!ingredients.containsKey(ingredient)) {
+                ingredients.put(ingredient, ingredientTable.size());
+                ingredientTable.add(ingredient);
+            }
+        }
+
+        /**
+         * Writes menu ingredients as references into the ingredient table, with their quantity limits.
+         *
+         * @param list The menu ingredients.
+         * @throws IOException If writing fails.
+         */
+        private void writeIngredients(List<MenuIngredient> list) throws IOException {
+            writeInt(list.size());
+            for (MenuIngredient i : list) {
+                writeInt(ingredients.get(i.getBaseIngredient()));
+                out.writeDouble(i.getMinQuantity());
+                out.writeDouble(i.getMaxQuantity());
+                out.writeDouble(i.getDefaultQuantity());
+            }
+        }
+
+        /**
+         * Writes the observers of an order as links. Observers that cannot be linked, such as customers who are no
+         * longer at a table, are left out.
+         *
+         * @param observers The observers.
+         * @throws IOException If writing fails.
+         */
+        private void writeLinks(List<Observer> observers) throws IOException {
+            List<int[]> links = new ArrayList<>();
+            for (Observer o : observers) {
+                if (o == restaurant.getOrderManager()) links.add(new int[]{ORDER_MANAGER});
+                else if (o == restaurant.getInventory()) links.add(new int[]{INVENTORY});
+                else if (o instanceof Employee) links.add(new int[]{EMPLOYEE, ((Employee) o).getId()});
+                else if (customers.containsKey(o)) {
+                    int[] position = customers.get(o);
+                    links.add(new int[]{CUSTOMER, position[0], position[1]});
+                }
+            }
+            writeInt(links.size());
+            for (int[] link : links) for (int value : link) writeInt(value);
+        }
+
+        /**
+         * Writes a list of orders as their ids.
+         *
+         * @param list The orders.
+         * @throws IOException If writing fails.
+         */
+        private void writeOrders(Collection<Order> list) throws IOException {
+            writeInt(list.size());
+            for (Order order : list) writeInt(order.getId());
+        }
+
+        /**
+         * Writes a string as its index in the string table.
+         *
+         * @param s The string.
+         * @throws IOException If writing fails.
+         */
+        private void writeString(String s) throws IOException {
+            Integer index = strings.get(s);
+            if (index == null) {
+                index = stringTable.size();
+                strings.put(s, index);
+                stringTable.add(s);
+            }
+            writeInt(index);
+        }
+
+        /**
+         * Writes a non-negative int in as few bytes as it needs, 7 bits at a time.
+         *
+         * @param value The value.
+         * @throws IOException If writing fails.
+         */
+        private void writeInt(int value) throws IOException {
+            while ((value & ~0x7f) != 0) {
+                out.writeByte((value & 0x7f) | 0x80);
+                value >>>= 7;
+            }
+            out.writeByte(value);
+        }
+    }
+
+    /**
+     * Reads one restaurant.
+     */
+    private static class Reader {
+
+        private final DataInputStream in;
+        private final Restaurant restaurant = new Restaurant();
+        private String[] strings;
+        private Ingredient[] ingredients;
+        private final Map<Integer, Order> orders = new HashMap<>();
+
+        /**
+         * Constructs a reader.
+         *
+         * @param in The stream to read from, after the magic number and version.
+         */
+        private Reader(DataInputStream in) {
+            this.in = in;
+        }
+
+        /**
+         * Reads the restaurant.
+         *
+         * @return Returns the restaurant.
+         * @throws IOException If reading fails.
+         */
+        private Restaurant read() throws IOException {
+            strings = new String[in.readInt()];
+            for (int i = 0; i < strings.length; i++) strings[i] = in.readUTF();
+
+            // Ingredients and their stock
+            Inventory inventory = restaurant.getInventory();
+            ingredients = new Ingredient[readInt()];
+            for (int i = 0; i < ingredients.length; i++) {
+                String name = readString();
+                double unitCost = in.readDouble(), threshold = in.readDouble(), target = in.readDouble();
+                if (in.readBoolean()) {
+                    inventory.restore(name, unitCost, threshold, target, in.readDouble());
+                    ingredients[i] = inventory.getIngredient(name);
+                } else {
+                    ingredients[i] = new Ingredient(name, unitCost, threshold);
+                    ingredients[i].setTarget(target);
+                }
+            }
+
+            // Menu
+            int menuSize = readInt();
+            for (int i = 0; i < menuSize; i++) {
+                MenuItem item = new MenuItem(readString(), in.readDouble());
+                item.getIngredients().addAll(readIngredients());
+                restaurant.getMenu().add(item);
+            }
+
+            // Employees
+            ObjectManager<Employee> employees = restaurant.getEmployeeManager();
+            employees.restoreCount(readInt());
+            EmployeeFactory factory = new EmployeeFactory(restaurant);
+            int employeeCount = readInt();
+            for (int i = 0; i < employeeCount; i++) factory.restore(readInt(), readString(), readString());
+
+            // Tables and their customers
+            ObjectManager<Table> tables = restaurant.getTableManager();
+            tables.restoreCount(readInt());
+            int tableCount = readInt();
+            for (int i = 0; i < tableCount; i++) {
+                Table table = new Table(readInt());
+                int customerCount = readInt();
+                for (int j = 0; j < customerCount; j++) table.addCustomer(new Customer(readInt()));
+                tables.addObject(table.getId(), table);
+            }
+
+            // Orders and their observers
+            int orderCount = readInt();
+            for (int i = 0; i < orderCount; i++) {
+                int id = readInt();
+                MenuItem item = new MenuItem(readString(), in.readDouble());
+                String notes = readString();
+                Order.State state = Order.State.values()[in.readByte()];
+                item.getIngredients().addAll(readIngredients());
+
+                Order order = new Order(id, item);
+                for (MenuIngredient ingredient : order.getIngredients()) ingredient.setQuantity(in.readDouble());
+                order.setNotes(notes);
+                order.setState(state);  // has no observers yet, so nobody is notified
+                readLinks(order);
+                orders.put(id, order);
+            }
+
+            // Lists of orders, by employee and by table
+            for (int i = 0; i < employeeCount; i++) {
+                Employee e = employees.getObject(readInt());
+                List<Order> list = readOrders();
+                if (e != null) e.getOrders().addAll(list);
+            }
+            for (int i = 0; i < tableCount; i++) {
+                Table table = tables.getObject(readInt());
+                for (Customer c : table.getCustomers()) {
+                    c.getPendingOrders().addAll(readOrders());
+                    c.getConfirmedOrders().addAll(readOrders());
+                }
+            }
+            OrderManager orderManager = restaurant.getOrderManager();
+            orderManager.restoreCount(readInt());
+            for (Order order : readOrders()) {
+                orderManager.addObject(order.getId(), order);
+                if (order.getState() == Order.State.PLACED) restaurant.getInventory().reserve(order);
+            }
+
+            return restaurant;
+        }
+
+        /**
+         * Reads menu ingredients written by writeIngredients.
+         *
+         * @return Returns the menu ingredients.
+         * @throws IOException If reading fails.
+         */
+        private List<MenuIngredient> readIngredients() throws IOException {
+            int count = readInt();
+            List<MenuIngredient> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Ingredient base = ingredients[readInt()];
+                list.add(new MenuIngredient(base, in.readDouble(), in.readDouble(), in.readDouble()));
+            }
+            return list;
+        }
+
+        /**
+         * Reads the observer links of an order and adds the observers they point to.
+         *
+         * @param order The order.
+         * @throws IOException If reading fails.
+         */
+        private void readLinks(Order order) throws IOException {
+            int count = readInt();
+            for (int i = 0; i < count; i++) {
+                switch (readInt()) {
+                    case ORDER_MANAGER:
+                        order.addObserver(restaurant.getOrderManager());
+                        break;
+                    case INVENTORY:
+                        order.addObserver(restaurant.getInventory());
+                        break;
+                    case EMPLOYEE: {
+                        Employee e = restaurant.getEmployeeManager().getObject(readInt());
+                        if (e instanceof Observer) order.addObserver((Observer) e);
+                        break;
+                    }
+                    case CUSTOMER: {
+                        Table table = restaurant.getTableManager().getObject(readInt());
+                        int index = readInt();
+                        if (table != null && index < table.getCustomers().size())
+                            order.addObserver(table.getCustomers().get(index));
+                        break;
+                    }
+                    default:
+                        throw new IOException("Unknown observer link");
+                }
+            }
+        }
+
+        /**
+         * Reads a list of orders written as their ids.
+         *
+         * @return Returns the orders.
+         * @throws IOException If reading fails.
+         */
+        private List<Order> readOrders() throws IOException {
+            int count = readInt();
+            List<Order> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Order order = orders.get(readInt());
+                if (order != null) list.add(order);
+            }
+            return list;
+        }
+
+        /**
+         * Reads a string as its index in the string table.
+         *
+         * @return Returns the string.
+         * @throws IOException If reading fails.
+         */
+        private String readString() throws IOException {
+            return strings[readInt()];
+        }
+
+        /**
+         * Reads an int written by Writer.writeInt.
+         *
+         * @return Returns the value.
+         * @throws IOException If reading fails.
+         */
+        private int readInt() throws IOException {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = in.readUnsignedByte();
+                value |= (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) return value;
+            }
+            throw new IOException("Malformed int");
+        }
+    }
+}
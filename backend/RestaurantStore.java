@@ -0,0 +1,718 @@
+package backend;
+
+import backend.employees.Cook;
+import backend.employees.Employee;
+import backend.employees.EmployeeFactory;
+import backend.foods.Ingredient;
+import backend.foods.MenuIngredient;
+import backend.foods.MenuItem;
+import backend.foods.Order;
+import controllers.helpers.Serializer;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * The RestaurantStore is a Singleton class that saves the restaurant while it runs, instead of only when the
+ * application is closed. Every change (an order being placed or changing state, stock changing, ingredients being
+ * removed, the menu being edited, employees, tables and customers being added or removed) is appended to a
+ * write-ahead log, restaurant.wal, as it happens. Every so often the whole restaurant is written to restaurant.snapshot on a background thread, and
+ * the log it covers is deleted. On startup the latest snapshot is loaded and the log written after it is replayed,
+ * so a crash of the application only loses the change that was being written. Entries are flushed to the operating
+ * system but not synced to disk, so a crash of the operating system or a power loss can also lose the last entries
+ * it had not written out yet.
+ * <p>
+ * If an entry cannot be written, the log is cut back to the last whole entry, so that later entries are not written
+ * after a torn one, the failure is reported to the failure listener, and a snapshot is taken to save the change.
+ * <p>
+ * Log entries hold absolute values (the new stock of an ingredient, the whole menu) or refer to objects by id, and
+ * replaying them has no effect outside the restaurant: nothing is logged, requested or written to the log again.
+ * Changes that are not logged are still saved by the next snapshot. Snapshots are written with the RestaurantCodec;
+ * snapshots written with Java serialization are still read.
+ */
+public class RestaurantStore {
+
+    // Constants
+    private static final File snapshotFile = new File("restaurant.snapshot");
+    private static final File tempFile = new File("restaurant.snapshot.tmp");
+    private static final File logFile = new File("restaurant.wal");
+    private static final File coveredLogFile = new File("restaurant.wal.old");   // log covered by the next snapshot
+    private static final File legacyFile = new File("restaurant.ser");
+    private static final int SNAPSHOT_MAGIC = 0x52534e50;      // "RSNP"
+    private static final int SNAPSHOT_EVERY = 1000;            // log entries between snapshots
+    private static final long SNAPSHOT_INTERVAL = 5 * 60 * 1000;  // milliseconds between snapshots
+
+    // Singleton instance
+    private static RestaurantStore instance = new RestaurantStore();
+
+    // Instance variables
+    private final ExecutorService writer;
+    private Restaurant restaurant;
+    private DataOutputStream log;
+    private long logLength;         // bytes of the log that hold whole entries
+    private boolean failing;        // whether the last entry could not be written
+    private Consumer<IOException> failureListener;
+    private long sequence;          // sequence number of the last entry logged
+    private int entries;            // entries logged since the last snapshot
+    private long lastSnapshot;      // when the last snapshot was taken
+    private volatile boolean replaying;
+    private Future<Boolean> pending;    // the snapshot being written, if any
+
+    /**
+     * Returns the RestaurantStore instance.
+     *
+     * @return The RestaurantStore.
+     */
+    public static RestaurantStore getInstance() {
+        return instance;
+    }
+
+    /**
+     * Constructs the store with the background thread that writes snapshots.
+     */
+    private RestaurantStore() {
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "restaurant-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * The kinds of changes that are logged.
+     */
+    private enum Entry {
+        PLACED,             // an order was placed
+        STATE,              // an order changed state
+        STOCK,              // an ingredient's stock or settings changed
+        MENU,               // the menu was edited
+        EMPLOYEE_ADDED,
+        EMPLOYEE_REMOVED,
+        TABLE_ADDED,
+        TABLE_REMOVED,
+        CUSTOMERS,          // customers were seated at a table
+        BILLED,             // a table was billed
+        INGREDIENT_REMOVED  // an ingredient was removed from the inventory
+    }
+
+    /**
+     * Writes the fields of a log entry.
+     */
+    private interface Fields {
+
+        /**
+         * Writes the fields.
+         *
+         * @param out The stream to write to.
+         * @throws IOException If writing fails.
+         */
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Loads the latest snapshot and replays the log written after it, then takes a new snapshot so that the log
+     * starts empty. Saves from before the store existed (restaurant.ser) are loaded when there is no snapshot.
+     * <p>
+     * If something was saved but cannot be read in full, nothing is recovered and no file is changed, so that a new
+     * snapshot does not overwrite what is left of the restaurant.
+     *
+     * <p>
+     * The OrderBus is muted while the restaurant is recovered, since the orders read and replayed changed state
+     * before.
+     *
+     * @return Returns the recovered restaurant, or null if nothing has been saved yet.
+     * @throws IOException If the snapshot, the old save or the log cannot be read.
+     */
+    public synchronized Restaurant recover() throws IOException {
+        OrderBus.getInstance().setMuted(true);
+        try {
+            return load();
+        } finally {
+            OrderBus.getInstance().setMuted(false);
+        }
+    }
+
+    /**
+     * Loads the latest snapshot or the old save, and replays the log, for recover.
+     *
+     * @return Returns the recovered restaurant, or null if nothing has been saved yet.
+     * @throws IOException If the snapshot, the old save or the log cannot be read.
+     */
+    private Restaurant load() throws IOException {
+        Restaurant loaded = null;
+        long covered = 0;
+        if (snapshotFile.exists()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(snapshotFile)))) {
+                if (in.readInt() != SNAPSHOT_MAGIC) throw new IOException("Not a restaurant snapshot");
+                covered = in.readLong();
+                if (RestaurantCodec.matches(in)) loaded = RestaurantCodec.read(in);
+                else loaded = (Restaurant) new ObjectInputStream(in).readObject();
+            } catch (IOException | ClassNotFoundException | RuntimeException e) {
+                throw new IOException(snapshotFile + " could not be read", e);
+            }
+        } else if (legacyFile.exists()) {
+            loaded = new Serializer(legacyFile.getPath()).deserialize();
+            if (loaded == null) throw new IOException(legacyFile + " could not be read");
+        }
+
+        if (loaded == null) {
+            if (!logFile.exists() && !coveredLogFile.exists()) return null;
+            loaded = new Restaurant();
+        }
+
+        restaurant = loaded;
+        sequence = covered;
+        replaying = true;
+        try {
+            replay(coveredLogFile, covered);
+            replay(logFile, covered);
+        } catch (IOException e) {
+            restaurant = null;
+            throw e;
+        } finally {
+            replaying = false;
+        }
+
+        snapshot(true);
+        return restaurant;
+    }
+
+    /**
+     * Starts saving a new restaurant, taking its first snapshot.
+     *
+     * @param restaurant The restaurant to save.
+     */
+    public synchronized void open(Restaurant restaurant) {
+        this.restaurant = restaurant;
+        snapshot(true);
+    }
+
+    /**
+     * Takes a final snapshot and closes the log. Called when the application shuts down.
+     */
+    public synchronized void close() {
+        if (restaurant != null) snapshot(true);
+        try {
+            if (log != null) log.close();
+        } catch (IOException ignored) {
+        }
+        log = null;
+    }
+
+    /**
+     * Sets what is told when a change cannot be written to the log. It is told once, until a change is written again.
+     *
+     * @param listener Called with the error, on the thread that made the change.
+     */
+    public synchronized void setFailureListener(Consumer<IOException> listener) {
+        this.failureListener = listener;
+    }
+
+    /**
+     * Returns whether the log is being replayed, in which case changes to the restaurant are not logged again.
+     *
+     * @return Returns whether the log is being replayed.
+     */
+    public boolean isReplaying() {
+        return replaying;
+    }
+
+    /**
+     * Logs an order being placed by a server for a customer.
+     *
+     * @param order    The order.
+     * @param server   The server who placed it.
+     * @param customer The customer it was placed for.
+     */
+    public synchronized void placed(Order order, Employee server, Customer customer) {
+        Table table = getTable(customer);
+        append(Entry.PLACED, out -> {
+            out.writeInt(order.getId());
+            out.writeInt(server.getId());
+            out.writeInt(table != null ? table.getId() : -1);
+            out.writeInt(customer.getId());
+            out.writeUTF(order.getName());
+            out.writeDouble(order.getMenuItemPrice());
+            out.writeUTF(order.getNotes());
+            out.writeShort(order.getIngredients().size());
+            for (MenuIngredient i : order.getIngredients()) {
+                writeIngredient(i, out);
+                out.writeDouble(i.getQuantity());
+            }
+        });
+    }
+
+    /**
+     * Logs an order changing to its current state.
+     *
+     * @param order    The order.
+     * @param employee The employee who changed it.
+     */
+    public synchronized void stateChanged(Order order, Employee employee) {
+        append(Entry.STATE, out -> {
+            out.writeInt(order.getId());
+            out.writeByte(order.getState().ordinal());
+            out.writeInt(employee != null ? employee.getId() : -1);
+            out.writeUTF(order.getNotes());
+        });
+    }
+
+    /**
+     * Logs the stock and settings of an ingredient.
+     *
+     * @param ingredient The ingredient.
+     * @param quantity   Its new quantity in the inventory.
+     */
+    public synchronized void stockChanged(Ingredient ingredient, double quantity) {
+        append(Entry.STOCK, out -> {
+            out.writeUTF(ingredient.getName());
+            out.writeDouble(ingredient.getUnitCost());
+            out.writeDouble(ingredient.getThreshold());
+            out.writeDouble(RestaurantCodec.getSetTarget(ingredient));
+            out.writeDouble(quantity);
+        });
+    }
+
+    /**
+     * Logs an ingredient being removed from the inventory with its stock.
+     *
+     * @param ingredient The ingredient.
+     */
+    public synchronized void ingredientRemoved(Ingredient ingredient) {
+        append(Entry.INGREDIENT_REMOVED, out -> out.writeUTF(ingredient.getName()));
+    }
+
+    /**
+     * Logs the whole menu after it was edited.
+     */
+    public synchronized void menuChanged() {
+        if (restaurant == null) return;
+        List<MenuItem> menu = restaurant.getMenu();
+        append(Entry.MENU, out -> {
+            out.writeShort(menu.size());
+            for (MenuItem item : menu) {
+                out.writeUTF(item.getName());
+                out.writeDouble(item.getPrice());
+                out.writeShort(item.getIngredients().size());
+                for (MenuIngredient i : item.getIngredients()) writeIngredient(i, out);
+            }
+        });
+    }
+
+    /**
+     * Logs an employee being added.
+     *
+     * @param employee The employee.
+     * @param type     The type of the employee, as given to the EmployeeFactory.
+     */
+    public synchronized void employeeAdded(Employee employee, String type) {
+        append(Entry.EMPLOYEE_ADDED, out -> {
+            out.writeInt(employee.getId());
+            out.writeUTF(type);
+            out.writeUTF(employee.getName());
+        });
+    }
+
+    /**
+     * Logs an employee being removed.
+     *
+     * @param id The id of the employee.
+     */
+    public synchronized void employeeRemoved(int id) {
+        append(Entry.EMPLOYEE_REMOVED, out -> out.writeInt(id));
+    }
+
+    /**
+     * Logs a table being added.
+     *
+     * @param id The id of the table.
+     */
+    public synchronized void tableAdded(int id) {
+        append(Entry.TABLE_ADDED, out -> out.writeInt(id));
+    }
+
+    /**
+     * Logs a table being removed.
+     *
+     * @param id The id of the table.
+     */
+    public synchronized void tableRemoved(int id) {
+        append(Entry.TABLE_REMOVED, out -> out.writeInt(id));
+    }
+
+    /**
+     * Logs customers being seated at a table.
+     *
+     * @param table        The table.
+     * @param numCustomers The number of customers seated.
+     */
+    public synchronized void customersAdded(Table table, int numCustomers) {
+        append(Entry.CUSTOMERS, out -> {
+            out.writeInt(table.getId());
+            out.writeInt(numCustomers);
+        });
+    }
+
+    /**
+     * Logs a table being billed, which clears its customers and archives its orders.
+     *
+     * @param table The table.
+     */
+    public synchronized void billed(Table table) {
+        append(Entry.BILLED, out -> out.writeInt(table.getId()));
+    }
+
+    /**
+     * Appends an entry to the log and flushes it, and takes a snapshot if one is due, or if the entry could not be
+     * written. Does nothing while the log is being replayed, or before a restaurant is being saved.
+     *
+     * @param type   The kind of change.
+     * @param fields Writes the fields of the entry.
+     */
+    private void append(Entry type, Fields fields) {
+        if (restaurant == null || replaying) return;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream payload = new DataOutputStream(bytes);
+            payload.writeLong(sequence + 1);
+            payload.writeByte(type.ordinal());
+            fields.write(payload);
+            payload.flush();
+
+            CRC32 crc = new CRC32();
+            crc.update(bytes.toByteArray());
+            if (log == null) {
+                logLength = logFile.length();
+                log = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(logFile, true)));
+            }
+            log.writeInt(bytes.size());
+            log.writeInt((int) crc.getValue());
+            bytes.writeTo(log);
+            log.flush();
+            logLength += 8 + bytes.size();
+            sequence++;
+            entries++;
+            failing = false;
+        } catch (IOException e) {
+            failed(e);
+            snapshot(false);
+            return;
+        }
+
+        if (entries >= SNAPSHOT_EVERY || System.currentTimeMillis() - lastSnapshot >= SNAPSHOT_INTERVAL)
+            snapshot(false);
+    }
+
+    /**
+     * Closes the log after an entry could not be written, and cuts it back to the last whole entry, so that the next
+     * entry is not written after a torn one. Tells the failure listener, unless it was told about the last failure.
+     *
+     * @param e The error writing the entry.
+     */
+    private void failed(IOException e) {
+        try {
+            if (log != null) log.close();
+        } catch (IOException ignored) {
+        }
+        log = null;
+        try (FileChannel channel = FileChannel.open(logFile.toPath(), StandardOpenOption.WRITE)) {
+            channel.truncate(logLength);
+        } catch (IOException truncating) {
+            e.addSuppressed(truncating);
+        }
+
+        if (!failing && failureListener != null) failureListener.accept(e);
+        failing = true;
+    }
+
+    /**
+     * Takes a snapshot of the restaurant. The restaurant is serialized on the calling thread, so that it does not
+     * change while being written, and the file is written on the background thread. The log so far is moved aside,
+     * and deleted once the snapshot is safely on disk.
+     *
+     * @param wait Whether to wait for the snapshot to be written, rather than skip it if one is still being written.
+     * @return Returns whether the snapshot was written, or started being written if not waiting.
+     */
+    private boolean snapshot(boolean wait) {
+        if (pending != null && !pending.isDone() && !(wait && finish())) return false;
+
+        ByteArrayOutputStream state = new ByteArrayOutputStream();
+        try {
+            DataOutputStream header = new DataOutputStream(state);
+            header.writeInt(SNAPSHOT_MAGIC);
+            header.writeLong(sequence);
+            RestaurantCodec.write(restaurant, state);
+
+            if (log != null) log.close();
+            log = null;
+            if (logFile.exists()) {
+                if (coveredLogFile.exists()) {
+                    Files.write(coveredLogFile.toPath(), Files.readAllBytes(logFile.toPath()),
+                            StandardOpenOption.APPEND);
+                    Files.delete(logFile.toPath());
+                } else Files.move(logFile.toPath(), coveredLogFile.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            return false;
+        }
+
+        entries = 0;
+        lastSnapshot = System.currentTimeMillis();
+        pending = writer.submit(() -> write(state));
+        return !wait || finish();
+    }
+
+    /**
+     * Waits for the snapshot being written.
+     *
+     * @return Returns whether it was written successfully.
+     */
+    private boolean finish() {
+        try {
+            return pending.get();
+        } catch (InterruptedException | ExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes a snapshot to disk through a temporary file, then deletes the log it covers. Runs on the background
+     * thread.
+     *
+     * @param state The serialized snapshot.
+     * @return Returns whether the snapshot was written.
+     */
+    private boolean write(ByteArrayOutputStream state) {
+        try {
+            try (FileOutputStream out = new FileOutputStream(tempFile)) {
+                state.writeTo(out);
+                out.getFD().sync();
+            }
+            Files.move(tempFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(coveredLogFile.toPath());
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Replays the entries of a log file that come after a snapshot. Only the last entry may be incomplete or
+     * corrupt, cut off by a crash, and replay stops there. Any other entry that is corrupt, cannot be applied, or
+     * does not follow on from the one before is reported instead, as the entries after it would be applied to the
+     * wrong state.
+     *
+     * @param file    The log file.
+     * @param covered The sequence number of the last entry the snapshot covers.
+     * @throws IOException If the log cannot be read, or an entry before the last cannot be replayed.
+     */
+    private void replay(File file, long covered) throws IOException {
+        if (!file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    return;
+                }
+                if (length < 0 || length > file.length()) throw new IOException(file + " has a corrupt entry after entry " + sequence);
+                byte[] bytes = new byte[length];
+                int crc;
+                try {
+                    crc = in.readInt();
+                    in.readFully(bytes);
+                } catch (EOFException e) {
+                    return;
+                }
+
+                CRC32 check = new CRC32();
+                check.update(bytes);
+                if ((int) check.getValue() != crc) {
+                    if (in.read() == -1) return;
+                    throw new IOException(file + " has a corrupt entry after entry " + sequence);
+                }
+
+                DataInputStream entry = new DataInputStream(new ByteArrayInputStream(bytes));
+                long number = entry.readLong();
+                if (number <= covered) continue;
+                if (number != sequence + 1)
+                    throw new IOException(file + " skips from entry " + sequence + " to entry " + number);
+                try {
+                    apply(Entry.values()[entry.readByte()], entry);
+                } catch (IOException | RuntimeException e) {
+                    throw new IOException(file + " entry " + number + " could not be replayed", e);
+                }
+                sequence = number;
+            }
+        }
+    }
+
+    /**
+     * Applies a logged change to the restaurant, the way it was first made but without any effects outside of it.
+     *
+     * @param type The kind of change.
+     * @param in   The fields of the entry.
+     * @throws IOException If the entry cannot be read.
+     */
+    private void apply(Entry type, DataInputStream in) throws IOException {
+        ObjectManager<Employee> employees = restaurant.getEmployeeManager();
+        ObjectManager<Table> tables = restaurant.getTableManager();
+        OrderManager orders = restaurant.getOrderManager();
+        Inventory inventory = restaurant.getInventory();
+
+        switch (type) {
+            case PLACED: {
+                int id = in.readInt();
+                Employee server = employees.getObject(in.readInt());
+                Table table = tables.getObject(in.readInt());
+                int customerId = in.readInt();
+                MenuItem item = new MenuItem(in.readUTF(), in.readDouble());
+                String notes = in.readUTF();
+                int count = in.readShort();
+                List<Double> quantities = new ArrayList<>();
+                for (int i = 0; i < count; i++) {
+                    item.getIngredients().add(readIngredient(in));
+                    quantities.add(in.readDouble());
+                }
+
+                Order order = new Order(id, item);
+                for (int i = 0; i < count; i++) order.getIngredients().get(i).setQuantity(quantities.get(i));
+                order.setNotes(notes);
+
+                if (server instanceof Observer) order.addObserver((Observer) server);
+                if (table != null) {
+                    for (Customer customer : table.getCustomers()) {
+                        if (customer.getId() == customerId) order.addObserver(customer);
+                    }
+                }
+                order.addObserver(orders);
+                order.setState(Order.State.PLACED);
+                order.addObserver(inventory);
+                inventory.reserve(order);
+                break;
+            }
+            case STATE: {
+                Order order = orders.getObject(in.readInt());
+                Order.State state = Order.State.values()[in.readByte()];
+                Employee employee = employees.getObject(in.readInt());
+                String notes = in.readUTF();
+                if (order == null) break;
+
+                // A snapshot taken while the change was being made (on a STOCK entry it logged first) already
+                // holds it, and applying it again would add the order to the cook's list twice
+                order.setNotes(notes);
+                if (order.getState() == state) break;
+                if (state == Order.State.PREPARING && employee instanceof Cook) {
+                    ((Cook) employee).orderSeen(order);
+                } else {
+                    if (state == Order.State.READY && employee != null) employee.getOrders().remove(order);
+                    order.setState(state);
+                }
+                break;
+            }
+            case STOCK:
+                inventory.restore(in.readUTF(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+                break;
+            case INGREDIENT_REMOVED:
+                inventory.removeIngredient(new Ingredient(in.readUTF()));
+                break;
+            case MENU: {
+                List<MenuItem> menu = new ArrayList<>();
+                int count = in.readShort();
+                for (int i = 0; i < count; i++) {
+                    MenuItem item = new MenuItem(in.readUTF(), in.readDouble());
+                    int ingredients = in.readShort();
+                    for (int j = 0; j < ingredients; j++) item.getIngredients().add(readIngredient(in));
+                    menu.add(item);
+                }
+                restaurant.getMenu().clear();
+                restaurant.getMenu().addAll(menu);
+                inventory.indexMenu(menu);
+                break;
+            }
+            case EMPLOYEE_ADDED:
+                new EmployeeFactory(restaurant).restore(in.readInt(), in.readUTF(), in.readUTF());
+                break;
+            case EMPLOYEE_REMOVED:
+                employees.removeObject(in.readInt());
+                break;
+            case TABLE_ADDED: {
+                int id = in.readInt();
+                tables.addObject(id, new Table(id));
+                break;
+            }
+            case TABLE_REMOVED:
+                tables.removeObject(in.readInt());
+                break;
+            case CUSTOMERS: {
+                Table table = tables.getObject(in.readInt());
+                int numCustomers = in.readInt();
+                if (table == null) break;
+                for (int i = 0; i < numCustomers; i++) {
+                    table.addCustomer(new Customer(table.getCustomers().size() + 1));
+                }
+                break;
+            }
+            case BILLED: {
+                Table table = tables.getObject(in.readInt());
+                if (table != null) restaurant.billed(table);
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes the name and quantity limits of a menu ingredient.
+     *
+     * @param ingredient The menu ingredient.
+     * @param out        The stream to write to.
+     * @throws IOException If writing fails.
+     */
+    private static void writeIngredient(MenuIngredient ingredient, DataOutputStream out) throws IOException {
+        out.writeUTF(ingredient.getBaseIngredient().getName());
+        out.writeDouble(ingredient.getMinQuantity());
+        out.writeDouble(ingredient.getMaxQuantity());
+        out.writeDouble(ingredient.getDefaultQuantity());
+    }
+
+    /**
+     * Reads a menu ingredient written by writeIngredient, sharing its base ingredient with the inventory.
+     *
+     * @param in The stream to read from.
+     * @return Returns the menu ingredient.
+     * @throws IOException If reading fails.
+     */
+    private MenuIngredient readIngredient(DataInputStream in) throws IOException {
+        Ingredient base = restaurant.getInventory().getIngredient(in.readUTF());
+        return new MenuIngredient(base, in.readDouble(), in.readDouble(), in.readDouble());
+    }
+
+    /**
+     * Finds the table a customer is seated at.
+     *
+     * @param customer The customer.
+     * @return Returns the table, or null if the customer is not at any table.
+     */
+    private Table getTable(Customer customer) {
+        if (restaurant == null) return null;
+        if (customer.getTable() != null) return customer.getTable();
+        for (Table table : restaurant.getTableManager().getObjects()) {
+            for (Customer c : table.getCustomers()) if (c == customer) return table;
+        }
+        return null;
+    }
+}
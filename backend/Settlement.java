@@ -0,0 +1,93 @@
+package backend;
+
+import backend.foods.Order;
+import backend.helpers.TextReceipt;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The Settlement closes out every open table at the end of the night. The bill of each table is worked out and
+ * rendered as a receipt in parallel, and the receipts are written to a file for the day, in the order of the tables,
+ * as they become ready. Only once every receipt has been written are the tables cleared and their orders archived.
+ */
+public class Settlement {
+
+    // Constants
+    private static final String RECEIPTS_DIRECTORY = "receipts";
+
+    // Instance variables
+    private Restaurant restaurant;
+
+    /**
+     * Constructs a settlement for a restaurant.
+     *
+     * @param restaurant The restaurant.
+     */
+    public Settlement(Restaurant restaurant) {
+        this.restaurant = restaurant;
+    }
+
+    /**
+     * Gets the tables that can be settled: those with customers, whose orders have all been delivered.
+     *
+     * @return Returns the tables.
+     */
+    public List<Table> getOpenTables() {
+        List<Table> tables = new ArrayList<>();
+        for (Table table : restaurant.getTableManager().getObjects()) {
+            if (table.getCustomers().size() == 0) continue;
+            if (table.getOrders().stream().allMatch(o -> o.getState() == Order.State.DELIVERED))
+                tables.add(table);
+        }
+        return tables;
+    }
+
+    /**
+     * Settles every open table, appending the receipts to today's file in the receipts directory.
+     *
+     * @return Returns the number of tables settled, or -1 if the receipts could not be written.
+     */
+    public int settle() {
+        return settle(new File(RECEIPTS_DIRECTORY, LocalDate.now() + ".txt"));
+    }
+
+    /**
+     * Settles every open table, appending the receipts to a file. Tables with orders that have not been delivered
+     * are left open. If the receipts cannot be written, no table is cleared.
+     *
+     * @param file The file to append the receipts to.
+     * @return Returns the number of tables settled, or -1 if the receipts could not be written.
+     */
+    public int settle(File file) {
+        List<Table> tables = getOpenTables();
+        if (tables.isEmpty()) return 0;
+
+        List<CompletableFuture<String>> receipts = new ArrayList<>();
+        for (Table table : tables) {
+            receipts.add(CompletableFuture.supplyAsync(() -> new TextReceipt(table.getBill()).toString()));
+        }
+
+        File directory = file.getAbsoluteFile().getParentFile();
+        if (directory != null && !directory.exists() && !directory.mkdirs()) return -1;
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            for (CompletableFuture<String> receipt : receipts) {
+                out.write(receipt.join());
+                out.newLine();
+            }
+        } catch (IOException ignored) {
+            return -1;
+        }
+
+        for (Table table : tables) restaurant.billed(table);
+        return tables.size();
+    }
+}
@@ -2,20 +2,27 @@ package backend;
 
 import backend.foods.Order;
 import backend.helpers.LogManager;
-import javafx.scene.layout.GridPane;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 
 /**
  * The Table holds the customers that will sit at an instance of the table. The restaurant can bill an entire
- * table or individual customers at the table.
+ * table or individual customers at the table. The table keeps an index of which customer placed each of its orders,
+ * which its customers update as orders are placed and cancelled, so finding the customer of an order does not look
+ * through every order at the table.
  */
 public class Table implements Serializable {
 
+    // Constants
+    private static final long serialVersionUID = 8894251112411506413L;
+
+    // Instance variables
     private int id;
     private ArrayList<Customer> customers;
+    private transient HashMap<Integer, Customer> routes;    // order id to the customer who placed it
 
     /**
      * Creates a table instance with a specific table id number.
@@ -44,9 +51,23 @@ public class Table implements Serializable {
     public void addCustomers(int numCustomers) {
         for (int i = 0; i < numCustomers; i++) {
             int customerId = customers.size() + 1;
-            customers.add(new Customer(customerId));
+            addCustomer(new Customer(customerId));
         }
         LogManager.getInstance().log(id, numCustomers);
+        RestaurantStore.getInstance().customersAdded(this, numCustomers);
+    }
+
+    /**
+     * Seats a customer at the table, without logging it.
+     *
+     * @param customer The customer.
+     */
+    void addCustomer(Customer customer) {
+        customers.add(customer);
+        customer.setTable(this);
+        if (routes != null) {
+            for (Order order : customer.getOrders()) routes.put(order.getId(), customer);
+        }
     }
 
     /**
@@ -57,34 +78,76 @@ public class Table implements Serializable {
     public List<Order> getOrders() {
         List<Order> orders = new ArrayList<>();
         for (Customer c : customers) {
-            orders.addAll(c.getOrders());
+            orders.addAll(c.getPendingOrders());
+            orders.addAll(c.getConfirmedOrders());
         }
         return orders;
     }
 
     /**
-     * Returns the Customer at this table by the customer's id number
+     * Returns the Customer at this table who placed an order.
      *
-     * @param id id of the customer to get
+     * @param id id of the order
      * @return Customer if one exists at the table
      */
     public Customer getCustomerByOrder(int id) {
-        for (Customer c : customers) {
-            if (new ArrayList<>(c.getOrders()).removeIf(o -> o.getId() == id)) return c;
+        return getRoutes().get(id);
+    }
+
+    /**
+     * Gets the index of which customer placed each order, building it from the customers' orders the first time,
+     * like after the table was loaded.
+     *
+     * @return Returns the index of order ids to customers.
+     */
+    private HashMap<Integer, Customer> getRoutes() {
+        if (routes == null) {
+            routes = new HashMap<>();
+            for (Customer c : customers) {
+                c.setTable(this);
+                for (Order order : c.getPendingOrders()) routes.put(order.getId(), c);
+                for (Order order : c.getConfirmedOrders()) routes.put(order.getId(), c);
+            }
         }
-        return null;
+        return routes;
     }
 
     /**
-     * Gets the bill for the entire table. (all customers who have yet to be billed). This will also clear all
-     * the customers from the table.
+     * Records that a customer at the table placed an order.
+     *
+     * @param order    The order.
+     * @param customer The customer.
+     */
+    void route(Order order, Customer customer) {
+        if (routes != null) routes.put(order.getId(), customer);
+    }
+
+    /**
+     * Forgets the customer of an order that was cancelled.
+     *
+     * @param order The order.
+     */
+    void unroute(Order order) {
+        if (routes != null) routes.remove(order.getId());
+    }
+
+    /**
+     * Gets the bill for the entire table (all customers who have yet to be billed). The table is not changed; once
+     * the bill has been paid, the table is cleared with billed.
      *
      * @return Bill that represents the orders made at this table.
      */
-    public GridPane getBill() {
-        GridPane tableBill = new Bill(this).getTableBill();
+    public Bill getBill() {
+        return new Bill(this);
+    }
+
+    /**
+     * Clears all the customers from the table after it was billed. Called by Restaurant.billed, which also archives
+     * the table's orders and logs it.
+     */
+    void billed() {
         customers.clear();
-        return tableBill;
+        if (routes != null) routes.clear();
     }
 
     /**
@@ -2,8 +2,8 @@ package backend.employees;
 
 import backend.Observable;
 import backend.Observer;
+import backend.RestaurantStore;
 import backend.foods.Order;
-import backend.helpers.LogManager;
 
 
 /**
@@ -29,7 +29,8 @@ public class Cook extends Employee implements Observer {
     public void orderSeen(Order order) {
         getOrders().add(order);
         order.addObserver(this);
-        order.setState(Order.State.PREPARING);
+        order.setState(Order.State.PREPARING, this);
+        RestaurantStore.getInstance().stateChanged(order, this);
     }
 
     /**
@@ -39,8 +40,8 @@ public class Cook extends Employee implements Observer {
      */
     public void orderReady(Order order) {
         getOrders().remove(order);
-        order.setState(Order.State.READY);
-        LogManager.getInstance().log(order, this);
+        order.setState(Order.State.READY, this);
+        RestaurantStore.getInstance().stateChanged(order, this);
     }
 
     /**
@@ -1,4 +1,5 @@
 package backend.employees;
+import backend.RestaurantStore;
 import backend.foods.Order;
 import java.io.Serializable;
 import java.util.ArrayList;
@@ -77,7 +78,8 @@ public class Employee implements Serializable {
      * @param order Order to be cancelled
      */
     public void cancelOrder(Order order) {
-        order.setState(Order.State.CANCEL);
+        order.setState(Order.State.CANCEL, this);
+        RestaurantStore.getInstance().stateChanged(order, this);
     }
 
     /**
@@ -1,7 +1,7 @@
 package backend.employees;
 
-import backend.ObjectManager;
 import backend.Restaurant;
+import backend.RestaurantStore;
 
 /**
  * A Factory for Creating Employees of different types.
@@ -24,19 +24,57 @@ public class EmployeeFactory {
      * @param name name of the employee
      */
     public boolean create(String type, String name) {
-        ObjectManager<Employee> employeeManager = restaurant.getEmployeeManager();
+        if (!isType(type)) return false;
+        Employee employee = restaurant.getEmployeeManager().createObject(id -> build(id, type, name));
+        RestaurantStore.getInstance().employeeAdded(employee, type);
+        return true;
+    }
+
+    /**
+     * Adds an Employee under a known id, as recorded by the RestaurantStore, without recording it again
+     * @param id   id of the employee
+     * @param type type of employee to make
+     * @param name name of the employee
+     */
+    public boolean restore(int id, String type, String name) {
+        Employee employee = build(id, type, name);
+        if (employee != null) restaurant.getEmployeeManager().addObject(id, employee);
+        return employee != null;
+    }
+
+    /**
+     * Checks whether the factory can make employees of a type
+     * @param type type of employee
+     * @return true if the type is known
+     */
+    private boolean isType(String type) {
         switch (type) {
             case "cook":
-                employeeManager.addObject(new Cook(employeeManager.getNextId(), name));
-                return true;
             case "server":
-                employeeManager.addObject(new Server(employeeManager.getNextId(), name, restaurant));
-                return true;
             case "manager":
-                employeeManager.addObject(new Manager(employeeManager.getNextId(), name));
                 return true;
             default:
                 return false;
         }
     }
+
+    /**
+     * Makes an Employee of the given type
+     * @param id   id of the employee
+     * @param type type of employee to make
+     * @param name name of the employee
+     * @return the employee, or null if the type is unknown
+     */
+    private Employee build(int id, String type, String name) {
+        switch (type) {
+            case "cook":
+                return new Cook(id, name);
+            case "server":
+                return new Server(id, name, restaurant);
+            case "manager":
+                return new Manager(id, name);
+            default:
+                return null;
+        }
+    }
 }
@@ -4,8 +4,8 @@ import backend.Customer;
 import backend.Observable;
 import backend.Observer;
 import backend.Restaurant;
+import backend.RestaurantStore;
 import backend.foods.Order;
-import backend.helpers.LogManager;
 
 /**
  * The Server class handles placing, confirming and rejecting orders. Servers also maintain their "own" orders -
@@ -28,18 +28,21 @@ public class Server extends Employee implements Observer {
     }
 
     /**
-     * Adds all observers to the order and adds it to customer's list of pending orders.
+     * Reserves the order's ingredients, adds all observers to the order and adds it to customer's list of pending
+     * orders.
      *
      * @param o The order to be placed.
+     * @param c The customer who placed it.
+     * @return Returns whether there were enough ingredients to place the order.
      */
     public boolean placeOrder(Order o, Customer c) {
-        if (restaurant.getInventory().isFeasible(o)) {
+        if (restaurant.getInventory().reserve(o)) {
             o.addObserver(this);
             o.addObserver(c);
             o.addObserver(restaurant.getOrderManager());
             o.addObserver(restaurant.getInventory());
-            o.setState(Order.State.PLACED);
-            LogManager.getInstance().log(o, this);
+            o.setState(Order.State.PLACED, this);
+            RestaurantStore.getInstance().placed(o, this, c);
             return true;
         }
         return false;
@@ -51,8 +54,8 @@ public class Server extends Employee implements Observer {
      * @param o The order that is picked up and confirmed.
      */
     public void confirmOrder(Order o) {
-        o.setState(Order.State.DELIVERED);
-        LogManager.getInstance().log(o, this);
+        o.setState(Order.State.DELIVERED, this);
+        RestaurantStore.getInstance().stateChanged(o, this);
     }
 
     /**
@@ -62,8 +65,8 @@ public class Server extends Employee implements Observer {
      */
     public void rejectOrder(Order o, String reason) {
         o.addNote(reason);
-        o.setState(Order.State.REMAKE);
-        LogManager.getInstance().log(o, this);
+        o.setState(Order.State.REMAKE, this);
+        RestaurantStore.getInstance().stateChanged(o, this);
     }
 
     /**
@@ -8,10 +8,15 @@ import java.io.Serializable;
  */
 public class Ingredient implements Serializable {
 
+    // Constants
+    private static final long serialVersionUID = 3328368285374096208L;  // pinned to the value computed before target was added
+    private static final double DEFAULT_TARGET_MARGIN = 10; // default target stock above the threshold
+
     // Instance variables
     private String name;
     private double unitCost;
     private double threshold;
+    private double target;  // stock level to reorder up to, or 0 for the default
 
     /**
      * Create an ingredient with a name and default cost of 0.
@@ -90,6 +95,34 @@ public class Ingredient implements Serializable {
         threshold = newThreshold;
     }
 
+    /**
+     * Get the target stock level for this ingredient, which reorders bring the stock back up to. Defaults to 10 above
+     * the threshold.
+     *
+     * @return Returns the target stock level.
+     */
+    public double getTarget() {
+        return target > 0 ? target : getDefaultTarget();
+    }
+
+    /**
+     * Get the target stock level this ingredient has when none was set, which is 10 above the threshold.
+     *
+     * @return Returns the default target stock level.
+     */
+    public double getDefaultTarget() {
+        return threshold + DEFAULT_TARGET_MARGIN;
+    }
+
+    /**
+     * Set the target stock level for this ingredient.
+     *
+     * @param newTarget New target stock level, or 0 to use the default.
+     */
+    public void setTarget(double newTarget) {
+        target = newTarget;
+    }
+
     /**
      * Returns true if the other object is an ingredient with the same name, or a string of the same name as this
      * Ingredient
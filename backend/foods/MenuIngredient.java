@@ -12,7 +12,11 @@ import java.io.Serializable;
  */
 public class MenuIngredient implements Serializable {
 
+    // Constants
+    private static final long serialVersionUID = 6065226232217825739L;
+
     // Instance variables
+    private transient Order order;  // the order this ingredient is part of, told when its quantity changes
     private Ingredient baseIngredient;
     private double maxQuantity;
     private double minQuantity;
@@ -130,10 +134,21 @@ public class MenuIngredient implements Serializable {
     public boolean setQuantity(double quantity) {
         if (isValidQuantity(quantity)) {
             this.orderQuantity = quantity;
+            if (order != null) order.priceChanged();
             return true;
         } else return false;
     }
 
+    /**
+     * Sets the order this ingredient is part of, so that the order's price is worked out again when the ingredient's
+     * quantity changes.
+     *
+     * @param order The order.
+     */
+    void setOrder(Order order) {
+        this.order = order;
+    }
+
     /**
      * Return the extra cost of any extra amounts of this ingredient added to an Order.
      *
@@ -1,5 +1,14 @@
 package backend.foods;
 
+import backend.Money;
+import backend.OrderBus;
+import backend.OrderEvent;
+import backend.employees.Employee;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.List;
+
 /**
  * An order consisting of a single MenuItem. Order can be modified, by for instance modifying the
  * amount of ingredient quantities. Total price, notes and state can also be retrieved. It extends MenuItem
@@ -7,10 +16,40 @@ package backend.foods;
  */
 public class Order extends MenuItem {
 
+    // Constants
+    private static final long serialVersionUID = 1837616742291867101L;
+
     // Instance variables
     private int id;
     private String notes;  // Additional notes from server
     private State state;
+    private transient volatile Charges charges;  // what the order costs, worked out again whenever it changes
+
+    /**
+     * What an order costs, in cents, as worked out at one moment, so that its lines always add up to its total.
+     */
+    private static class Charges {
+        private final long menuItem;
+        private final long[] extras;    // by index in the order's ingredients
+        private final long total;
+
+        /**
+         * Works out the charges of an order.
+         *
+         * @param menuItemPrice The price of the order's menu item, in dollars.
+         * @param ingredients   The order's ingredients.
+         */
+        private Charges(double menuItemPrice, List<MenuIngredient> ingredients) {
+            menuItem = Money.toCents(menuItemPrice);
+            extras = new long[ingredients.size()];
+            long total = menuItem;
+            for (int i = 0; i < extras.length; i++) {
+                extras[i] = Money.toCents(ingredients.get(i).getExtraCost());
+                total += extras[i];
+            }
+            this.total = total;
+        }
+    }
 
     /**
      * Constructs an Order.
@@ -23,8 +62,11 @@ public class Order extends MenuItem {
         this.state = State.CONSTRUCTING;
         this.id = id;
         for (MenuIngredient i : menuItem.getIngredients()) {
-            getIngredients().add(i.copy());
+            MenuIngredient ingredient = i.copy();
+            ingredient.setOrder(this);
+            getIngredients().add(ingredient);
         }
+        priceChanged();
     }
 
     /**
@@ -43,11 +85,71 @@ public class Order extends MenuItem {
      * @return double total price of this Order
      */
     public double getPrice() {
-        double totalPrice = super.getPrice();
-        for (MenuIngredient i : getIngredients()) {
-            totalPrice += i.getExtraCost();
-        }
-        return totalPrice;
+        return Money.toDollars(getPriceCents());
+    }
+
+    /**
+     * Returns the total price of this Order in cents, with the price of the MenuItem and of each extra ingredient
+     * rounded to the cent, so that it matches the lines of a bill. The total is worked out whenever an ingredient's
+     * quantity or the price changes, so extras are charged at the unit cost of when the order was last changed, and
+     * it can be read from any thread. It is always the sum of getMenuItemPriceCents and getExtraCents.
+     *
+     * @return Returns the total price in cents.
+     */
+    public long getPriceCents() {
+        return charges.total;
+    }
+
+    /**
+     * Returns the price of the MenuItem of this Order in cents, as charged in getPriceCents.
+     *
+     * @return Returns the price in cents.
+     */
+    public long getMenuItemPriceCents() {
+        return charges.menuItem;
+    }
+
+    /**
+     * Returns the extra cost of one of the ingredients of this Order in cents, as charged in getPriceCents, which
+     * may differ from its getExtraCost if the ingredient's unit cost changed since the order was last changed.
+     *
+     * @param index The index of the ingredient in getIngredients.
+     * @return Returns the extra cost in cents, or 0 if the ingredient is not charged for.
+     */
+    public long getExtraCents(int index) {
+        long[] extras = charges.extras;
+        return index < extras.length ? extras[index] : 0;
+    }
+
+    /**
+     * Sets the price of the MenuItem of this Order.
+     *
+     * @param newPrice The new price for the menu item.
+     */
+    @Override
+    public void setPrice(double newPrice) {
+        super.setPrice(newPrice);
+        priceChanged();
+    }
+
+    /**
+     * Works out the total price again, after an ingredient's quantity or the price changed.
+     */
+    void priceChanged() {
+        charges = new Charges(super.getPrice(), getIngredients());
+    }
+
+    /**
+     * Reads an order that was saved, linking its ingredients to it and working out its total price.
+     *
+     * @param in The stream to read from.
+     * @throws IOException            If the order could not be read.
+     * @throws ClassNotFoundException If a class of the order could not be found.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        for (MenuIngredient i : getIngredients()) i.setOrder(this);
+        priceChanged();
     }
 
     /**
@@ -68,7 +170,7 @@ public class Order extends MenuItem {
     public void setIngredientQuantity(String ingredientName, double quantity) {
         MenuIngredient ingredient = getIngredient(ingredientName);
         if (ingredient != null && ingredient.isValidQuantity(quantity))
-            getIngredient(ingredientName).setQuantity(quantity);
+            ingredient.setQuantity(quantity);
     }
 
     /**
@@ -80,6 +182,15 @@ public class Order extends MenuItem {
         notes += "\n" + note;
     }
 
+    /**
+     * Setter for notes.
+     *
+     * @param notes All the notes of the order, as returned by getNotes.
+     */
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+
     /**
      * Gets the notes for the Order.
      *
@@ -104,8 +215,20 @@ public class Order extends MenuItem {
      * @param s The state. One of PLACED, PREPARING, READY, DELIVERED.
      */
     public void setState(State s) {
+        setState(s, null);
+    }
+
+    /**
+     * Sets the state of the order on behalf of an employee. The order's observers are updated first, then the change
+     * is published on the OrderBus.
+     *
+     * @param s        The state. One of PLACED, PREPARING, READY, DELIVERED.
+     * @param employee The employee changing the state, or null.
+     */
+    public void setState(State s, Employee employee) {
         this.state = s;
         notifyObservers(s);
+        OrderBus.getInstance().publish(new OrderEvent(this, s, employee));
     }
 
     /**
@@ -131,6 +254,16 @@ public class Order extends MenuItem {
         return obj instanceof Order && ((Order) obj).getId() == getId();
     }
 
+    /**
+     * Overrides Object.hashCode to match equals, so orders can be kept in hash sets.
+     *
+     * @return Returns the hash code of the order's id.
+     */
+    @Override
+    public int hashCode() {
+        return Integer.hashCode(id);
+    }
+
     /**
      * States that the order can be in.
      */
@@ -0,0 +1,166 @@
+package backend.helpers;
+
+import controllers.helpers.Serializer;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * The AnalyticsIndex is a Singleton class that keeps per-day rollups of the events in log.txt, so that statistics
+ * can be answered without reading the log again. It remembers the byte offset up to which log.txt has been indexed,
+ * so on startup only the part of the log written since the last run is parsed. While the application runs, the
+ * LogManager feeds it every event it writes.
+ */
+public class AnalyticsIndex implements Serializable {
+
+    // Constants
+    private static final long serialVersionUID = 1L;
+    private static final String LOG_PATH = "log.txt";
+    private static final String INDEX_PATH = "analytics.ser";
+    private static final long PARALLEL_THRESHOLD = 16 * 1024 * 1024;   // unindexed bytes worth parsing in parallel
+
+    // Singleton instance
+    private static AnalyticsIndex instance;
+
+    // Instance variables
+    private TreeMap<LocalDate, DayRollup> days;
+    private long checkpoint;    // number of bytes of log.txt that have been indexed
+    private long events;        // number of events that have been indexed, and the ordinal of the next one
+
+    /**
+     * Returns the AnalyticsIndex instance, loading it and indexing the unread tail of log.txt on first use.
+     *
+     * @return The AnalyticsIndex.
+     */
+    public static synchronized AnalyticsIndex getInstance() {
+        if (instance == null) {
+            instance = new Serializer(INDEX_PATH).deserialize();
+            if (instance == null) instance = new AnalyticsIndex();
+            instance.catchUp();
+        }
+        return instance;
+    }
+
+    /**
+     * Constructs an empty index.
+     */
+    private AnalyticsIndex() {
+        days = new TreeMap<>();
+    }
+
+    /**
+     * Indexes every event of log.txt after the checkpoint. A large unindexed tail (like on the first run over a long
+     * history) is parsed in parallel, anything left after that is streamed one event at a time. If log.txt is
+     * shorter than the checkpoint, it was replaced, and the index is rebuilt from the start, beginning with the
+     * partitions rotated out of log.txt.
+     */
+    private synchronized void catchUp() {
+        File logFile = new File(LOG_PATH);
+        if (logFile.length() < checkpoint) {
+            days.clear();
+            checkpoint = 0;
+            events = 0;
+        }
+
+        if (checkpoint == 0 && events == 0) {
+            for (LogPartitions.Partition partition : new LogPartitions(logFile,
+                    new File(LogPartitions.DEFAULT_DIRECTORY)).getPartitions()) {
+                try (LogCursor cursor = partition.open(events)) {
+                    while (cursor.next()) index(cursor.getEvent());
+                    events = cursor.getOrdinal();
+                } catch (IOException ignored) {
+                }
+            }
+        }
+
+        if (logFile.length() - checkpoint >= PARALLEL_THRESHOLD) {
+            try {
+                ParallelLogParser parser = new ParallelLogParser(logFile, checkpoint);
+                for (Map.Entry<LocalDate, DayRollup> entry : parser.parse().entrySet()) {
+                    getDay(entry.getKey()).merge(entry.getValue());
+                }
+                checkpoint = parser.getEnd();
+                events += parser.getEvents();
+            } catch (IOException | IllegalStateException ignored) {
+            }
+        }
+
+        try (LogCursor cursor = new LogCursor(logFile, checkpoint, events)) {
+            while (cursor.next()) index(cursor.getEvent());
+            checkpoint = cursor.getOffset();
+            events = cursor.getOrdinal();
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * Adds a line that has just been appended to log.txt to the index.
+     *
+     * @param line The line that was written, without its line separator.
+     * @return Returns the parsed event, or null if the line is not a valid event.
+     */
+    synchronized LogEvent append(String line) {
+        LogEvent event = LogEvent.parse(line, events);
+        if (event != null) {
+            index(event);
+            events++;
+        }
+        checkpoint += (line + System.lineSeparator()).getBytes().length;
+        return event;
+    }
+
+    /**
+     * Moves the checkpoint after log.txt was rotated. Every line left in log.txt had been indexed before.
+     *
+     * @param length The new length of log.txt.
+     */
+    synchronized void rotated(long length) {
+        checkpoint = length;
+        save();
+    }
+
+    /**
+     * Saves the index and its checkpoint so that the next run only parses new lines.
+     *
+     * @return Returns whether the index was saved successfully.
+     */
+    public synchronized boolean save() {
+        return new Serializer(INDEX_PATH).serialize(this);
+    }
+
+    /**
+     * Passes the rollup of every day in the range [start, end) that has any events to the consumer.
+     *
+     * @param start    The first day of the range.
+     * @param end      The day after the last day of the range.
+     * @param consumer The consumer receiving each day and its rollup.
+     */
+    public synchronized void forEachDay(LocalDate start, LocalDate end, BiConsumer<LocalDate, DayRollup> consumer) {
+        if (!start.isBefore(end)) return;
+        for (Map.Entry<LocalDate, DayRollup> entry : days.subMap(start, end).entrySet()) {
+            consumer.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Adds an event to the rollup of its day.
+     *
+     * @param event The event to index.
+     */
+    private void index(LogEvent event) {
+        getDay(event.getTime().toLocalDate()).add(event);
+    }
+
+    /**
+     * Gets the rollup for a day, creating it if necessary.
+     *
+     * @param date The day to get the rollup of.
+     * @return Returns the rollup of that day.
+     */
+    private DayRollup getDay(LocalDate date) {
+        return days.computeIfAbsent(date, d -> new DayRollup());
+    }
+}
@@ -1,77 +1,86 @@
 package backend.helpers;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.LocalDate;
-import java.time.ZoneId;
 import java.util.*;
 
 public class DataManager {
 
-    // Constants
-    private static final String FILENAME = "log.txt";
-    private final String[] WEEK_DAYS = {"Monday", "Tuesday", "Wednesday", "Thursday", "Friday", "Saturday", "Sunday"};
-
     // Instance variables
-    private SimpleDateFormat formatter;
-    private SimpleDateFormat weekdayFormatter;
-    private Date start, end;
+    private LocalDate start, end;
+    private AnalyticsIndex index;
+    private EventSegments segments;
+    private LogPartitions partitions;
 
     /**
-     * Constructs a DataManager with the given date range.
+     * Constructs a DataManager with the given date range. Statistics are answered from the per-day rollups of the
+     * analytics index, so each query costs time proportional to the number of days in the range.
      *
      * @param start The start date for fetching data.
      * @param end   The end date for fetching data.
      */
     public DataManager(LocalDate start, LocalDate end) {
-        formatter = new SimpleDateFormat("yyyy/MM/dd/HH:mm:ss");
-        weekdayFormatter = new SimpleDateFormat("EEEE");
-        this.start = asDate(start);
-        this.end = asDate(end);
+        this.start = start;
+        this.end = end;
+        this.index = AnalyticsIndex.getInstance();
     }
 
     /**
-     * Gets a LocalDate as a date.
+     * Constructs a DataManager that reads binary event segments instead of the analytics index. Each day in the
+     * range is rolled up straight from its segment.
      *
-     * @param localDate The local date object to convert.
-     * @return Returns the converted date object.
+     * @param start    The start date for fetching data.
+     * @param end      The end date for fetching data.
+     * @param segments The event segments to read.
      */
-    private Date asDate(LocalDate localDate) {
-        return Date.from(localDate.atStartOfDay().atZone(ZoneId.systemDefault()).toInstant());
+    public DataManager(LocalDate start, LocalDate end, EventSegments segments) {
+        this.start = start;
+        this.end = end;
+        this.segments = segments;
     }
 
     /**
-     * Reads the file into a Map of dates to line parts.
+     * Constructs a DataManager that reads the log partitions instead of the analytics index. Only the partitions
+     * overlapping the date range are read.
      *
-     * @return Returns a map of dates to line parts array.
+     * @param start      The start date for fetching data.
+     * @param end        The end date for fetching data.
+     * @param partitions The log partitions to read.
      */
-    private Map<Date, String[]> readLines() {
-        Map<Date, String[]> lines = new HashMap<>();
-        try {
-            FileReader input = new FileReader(FILENAME);
-            BufferedReader bufferedReader = new BufferedReader(input);
+    public DataManager(LocalDate start, LocalDate end, LogPartitions partitions) {
+        this.start = start;
+        this.end = end;
+        this.partitions = partitions;
+    }
 
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                String[] data = line.split("\\|");
-                Date date;
-                try {
-                    if (data.length < 2) continue;
-                    String stringDate = data[0].trim() + "/" + data[1].trim();
-                    date = formatter.parse(stringDate);
-                } catch (ParseException ignored) {
-                    continue;
-                }
-                if (date.after(start) && date.before(end)) {
-                    lines.put(date, data);
-                }
+    /**
+     * Computes any set of metrics over the date range in a single pass.
+     *
+     * @param metrics The metrics to compute.
+     * @return Returns the statistics holding every requested metric.
+     */
+    public Statistics aggregate(Set<Metric> metrics) {
+        Statistics statistics = new Statistics(metrics);
+        for (LocalDate date = start; date.isBefore(end); date = date.plusDays(1)) {
+            statistics.countDay(date);
+            if (segments != null) {
+                DayRollup day = segments.rollup(date);
+                if (day != null) statistics.accept(date, day);
             }
-        } catch (IOException ignored) {
         }
-        return lines;
+        if (partitions != null) partitions.rollup(start, end).forEach(statistics::accept);
+        else if (segments == null) index.forEachDay(start, end, statistics::accept);
+        return statistics;
+    }
+
+    /**
+     * Computes the given metrics over the date range in a single pass.
+     *
+     * @param first The first metric to compute.
+     * @param rest  Any other metrics to compute.
+     * @return Returns the statistics holding every requested metric.
+     */
+    public Statistics aggregate(Metric first, Metric... rest) {
+        return aggregate(EnumSet.of(first, rest));
     }
 
     /**
@@ -80,16 +89,7 @@ public class DataManager {
      * @return Returns a map of menu item names, and their order frequencies.
      */
     public HashMap<String, Number> getConsumptionData() {
-        HashMap<String, Integer> map = new HashMap<>();
-
-        Map<Date, String[]> lines = readLines();
-        for (Date date : lines.keySet()) {
-            if (lines.get(date).length >= 6 && lines.get(date)[2].trim().equals("ORDER PLACED")) {
-                String menuItem = lines.get(date)[5].replace("Ordered Item: ", "").trim();
-                map.put(menuItem, map.getOrDefault(menuItem, 0) + 1);
-            }
-        }
-        return new HashMap<>(map);
+        return new HashMap<>(aggregate(Metric.CONSUMPTION).getConsumption());
     }
 
     /**
@@ -99,29 +99,7 @@ public class DataManager {
      * @return Returns a map of hours to number of average customers received.
      */
     public HashMap<String, Number> getHourToCustomerAverage(String weekday) {
-        LinkedHashMap<String, Integer> map = new LinkedHashMap<>();
-        SimpleDateFormat hourFormatter = new SimpleDateFormat("HH:00");
-        for (int i = 0; i < 24; i++) map.put(String.format("%02d:00", i), 0);
-
-        int numDays = calcNumDays(weekday);
-        Map<Date, String[]> lines = readLines();
-        for (Date date : lines.keySet()) {
-            if (lines.get(date).length >= 4 && lines.get(date)[2].trim().equals("CUSTOMERS SEATED")) {
-                if (weekdayFormatter.format(date).equals(weekday) || weekday.equals("ALL")) {
-                    String hourString = hourFormatter.format(date);
-                    int numCustomers = Integer.valueOf(lines.get(date)[3].trim().replace("Number of Customers: ",
-                            ""));
-                    map.put(hourString, map.getOrDefault(hourString, 0) +
-                            numCustomers);
-                }
-            }
-        }
-        if (numDays > 0) {
-            for (String k : map.keySet()) {
-                map.put(k, map.get(k) / numDays);
-            }
-        }
-        return new LinkedHashMap<>(map);
+        return new LinkedHashMap<>(aggregate(Metric.HOURLY_CUSTOMERS).getHourToCustomerAverage(weekday));
     }
 
     /**
@@ -130,19 +108,7 @@ public class DataManager {
      * @return Returns a map of weekdays to number of customers received.
      */
     public HashMap<String, Number> getWeekdayToCustomers() {
-        HashMap<String, Integer> map = new HashMap<>();
-        for (String WEEK_DAY : WEEK_DAYS) map.put(WEEK_DAY, 0);
-
-        Map<Date, String[]> lines = readLines();
-        for (Date date : lines.keySet()) {
-            if (lines.get(date).length >= 4 && lines.get(date)[2].trim().equals("CUSTOMERS SEATED")) {
-                String weekday = weekdayFormatter.format(date);
-                String amountString = lines.get(date)[3].trim().replace("Number of Customers: ", "");
-                Integer amount = Integer.valueOf(amountString);
-                map.put(weekday, map.getOrDefault(weekday, 0) + amount);
-            }
-        }
-        return new HashMap<>(map);
+        return new HashMap<>(aggregate(Metric.WEEKDAY_CUSTOMERS).getWeekdayToCustomers());
     }
 
     /**
@@ -151,49 +117,6 @@ public class DataManager {
      * @return Returns a map of weekdays to total sales.
      */
     public HashMap<String, Number> getWeekdayToSales() {
-        HashMap<String, Double> map = new HashMap<>();
-        for (String WEEK_DAY : WEEK_DAYS) map.put(WEEK_DAY, 0.0);
-
-        Map<Date, String[]> lines = readLines();
-        for (Date date : lines.keySet()) {
-            if (lines.get(date).length >= 7 && lines.get(date)[2].trim().equals("ORDER DELIVERED")) {
-                String weekday = weekdayFormatter.format(date);
-                String amountString = lines.get(date)[6].trim().replace("Order Price: ", "");
-                Double amount = Double.valueOf(amountString);
-                map.put(weekday, map.getOrDefault(weekday, 0.0) + amount);
-            }
-        }
-
-        return new HashMap<>(map);
-    }
-
-    /**
-     * Helper method to calculate number of times a weekday occurs in the date range.
-     *
-     * @param weekDay The weekday to count.
-     * @return Returns the number of times the weekday occurs in the date range.
-     */
-    private int calcNumDays(String weekDay) {
-        Calendar cStart = Calendar.getInstance();
-        Calendar cEnd = Calendar.getInstance();
-        cStart.setTime(start);
-        cEnd.setTime(end);
-
-        int count = 0;
-        if (weekDay.equals("ALL")) {
-            for (Date date = cStart.getTime(); cStart.before(cEnd); cStart.add(Calendar.DATE, 1),
-                    date = cStart.getTime()) {
-                count += 1;
-            }
-        } else {
-            for (Date date = cStart.getTime(); cStart.before(cEnd); cStart.add(Calendar.DATE, 1),
-                    date = cStart.getTime()) {
-                if (weekdayFormatter.format(date).equals(weekDay)) {
-                    count += 1;
-                }
-            }
-        }
-        return count;
+        return new HashMap<>(aggregate(Metric.WEEKDAY_SALES).getWeekdayToSales());
     }
 }
-
@@ -0,0 +1,136 @@
+package backend.helpers;
+
+import backend.Money;
+
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A DayRollup holds the pre-aggregated statistics of a single day of the log: the customers seated in each hour,
+ * the value of delivered orders, and how often each menu item was ordered.
+ */
+public class DayRollup implements Serializable {
+
+    // Constants
+    private static final long serialVersionUID = 1L;
+    public static final int HOURS = 24;
+
+    // Instance variables
+    private int[] customersByHour;
+    private long sales;     // in cents
+    private HashMap<String, Integer> consumption;
+
+    /**
+     * Constructs an empty rollup.
+     */
+    public DayRollup() {
+        customersByHour = new int[HOURS];
+        consumption = new HashMap<>();
+    }
+
+    /**
+     * Records customers being seated.
+     *
+     * @param hour         The hour of the day they were seated in.
+     * @param numCustomers The number of customers seated.
+     */
+    void addCustomers(int hour, int numCustomers) {
+        customersByHour[hour] += numCustomers;
+    }
+
+    /**
+     * Records the value of a delivered order.
+     *
+     * @param cents The price of the order, in cents.
+     */
+    void addSale(long cents) {
+        sales += cents;
+    }
+
+    /**
+     * Records a placed order of a menu item.
+     *
+     * @param menuItem The name of the menu item ordered.
+     */
+    void addConsumption(String menuItem) {
+        consumption.merge(menuItem, 1, Integer::sum);
+    }
+
+    /**
+     * Records a logged event. Events that are not relevant to the statistics or have malformed details are skipped.
+     *
+     * @param event The event to record. It must have been logged on this rollup's day.
+     */
+    void add(LogEvent event) {
+        try {
+            switch (event.getType()) {
+                case "ORDER PLACED":
+                    String menuItem = event.getDetail(2, "Ordered Item: ");
+                    if (menuItem != null) addConsumption(menuItem);
+                    break;
+                case "ORDER DELIVERED":
+                    String price = event.getDetail(3, "Order Price: ");
+                    if (price != null) addSale(Money.toCents(Double.parseDouble(price)));
+                    break;
+                case "CUSTOMERS SEATED":
+                    String customers = event.getDetail(0, "Number of Customers: ");
+                    if (customers != null) addCustomers(event.getTime().getHour(), Integer.parseInt(customers));
+                    break;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+    }
+
+    /**
+     * Adds everything recorded in another rollup of the same day to this one.
+     *
+     * @param other The rollup to merge into this one.
+     */
+    void merge(DayRollup other) {
+        for (int hour = 0; hour < HOURS; hour++) customersByHour[hour] += other.customersByHour[hour];
+        sales += other.sales;
+        for (Map.Entry<String, Integer> entry : other.consumption.entrySet()) {
+            consumption.merge(entry.getKey(), entry.getValue(), Integer::sum);
+        }
+    }
+
+    /**
+     * Gets the number of customers seated in the given hour.
+     *
+     * @param hour The hour of the day.
+     * @return Returns the number of customers seated in that hour.
+     */
+    public int getCustomers(int hour) {
+        return customersByHour[hour];
+    }
+
+    /**
+     * Gets the number of customers seated over the whole day.
+     *
+     * @return Returns the number of customers seated that day.
+     */
+    public int getCustomers() {
+        int total = 0;
+        for (int customers : customersByHour) total += customers;
+        return total;
+    }
+
+    /**
+     * Gets the value of orders delivered that day.
+     *
+     * @return Returns the total sales of the day, in cents.
+     */
+    public long getSales() {
+        return sales;
+    }
+
+    /**
+     * Gets how often each menu item was ordered that day.
+     *
+     * @return Returns a map of menu item names to order counts.
+     */
+    public Map<String, Integer> getConsumption() {
+        return consumption;
+    }
+}
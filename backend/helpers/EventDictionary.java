@@ -0,0 +1,101 @@
+package backend.helpers;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * The EventDictionary assigns small integer ids to the names stored in binary event segments (menu items, employees
+ * and notes), so segments can store fixed-width ids instead of strings. The dictionary is shared by every segment
+ * and is append-only: a name keeps its id forever, and new names are written to disk before any record uses them.
+ */
+class EventDictionary implements Closeable {
+
+    // Constants
+    static final int NONE = -1;
+
+    // Instance variables
+    private final ArrayList<String> names = new ArrayList<>();
+    private final HashMap<String, Integer> ids = new HashMap<>();
+    private DataOutputStream output;
+
+    /**
+     * Opens a dictionary file, loading every name in it. A name cut off by a crash is dropped.
+     *
+     * @param file The dictionary file, created if it does not exist.
+     * @throws IOException If the file cannot be read or opened for writing.
+     */
+    EventDictionary(File file) throws IOException {
+        long valid = 0;
+        if (file.exists()) {
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                while (true) {
+                    String name = input.readUTF();
+                    ids.put(name, names.size());
+                    names.add(name);
+                    valid += 2 + utfLength(name);
+                }
+            } catch (EOFException | UTFDataFormatException ignored) {
+            }
+        }
+
+        try (RandomAccessFile truncate = new RandomAccessFile(file, "rw")) {
+            truncate.setLength(valid);
+        }
+        output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, true)));
+    }
+
+    /**
+     * Gets the id of a name, adding it to the dictionary if it is new.
+     *
+     * @param name The name to encode, or null.
+     * @return Returns the id of the name, or NONE for null.
+     * @throws IOException If a new name cannot be written.
+     */
+    synchronized int encode(String name) throws IOException {
+        if (name == null) return NONE;
+        Integer id = ids.get(name);
+        if (id != null) return id;
+
+        output.writeUTF(name);
+        output.flush();
+        ids.put(name, names.size());
+        names.add(name);
+        return names.size() - 1;
+    }
+
+    /**
+     * Gets the name with the given id.
+     *
+     * @param id The id to decode.
+     * @return Returns the name, or null for NONE or an unknown id.
+     */
+    synchronized String decode(int id) {
+        return id >= 0 && id < names.size() ? names.get(id) : null;
+    }
+
+    /**
+     * Closes the dictionary file.
+     *
+     * @throws IOException If closing fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        output.close();
+    }
+
+    /**
+     * Gets the number of bytes writeUTF uses for the characters of a string.
+     *
+     * @param name The string.
+     * @return Returns its length in modified UTF-8.
+     */
+    private static int utfLength(String name) {
+        int length = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            length += c >= 0x0001 && c <= 0x007F ? 1 : c > 0x07FF ? 3 : 2;
+        }
+        return length;
+    }
+}
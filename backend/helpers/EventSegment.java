@@ -0,0 +1,251 @@
+package backend.helpers;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+
+/**
+ * An EventSegment is a read-only view of one day of events in the binary segment format.
+ * <p>
+ * A segment starts with a header (magic number, version and day), followed by fixed-width records in the order the
+ * events were logged. Since every record has the same width, a single column (like the type or the price) can be
+ * read for every record without decoding the others. Names are stored as ids of the shared EventDictionary, and
+ * prices and quantities as fixed-point hundredths. A sealed segment ends with a footer holding the number of
+ * records per hour and per event type; a segment that is still being written (or was cut off by a crash) has no
+ * footer, and only its complete records are read.
+ */
+public class EventSegment {
+
+    // Format
+    static final int MAGIC = 0x52534547;            // "RSEG"
+    static final int FOOTER_MAGIC = 0x52534646;     // "RSFF"
+    static final short VERSION = 1;
+    static final int HEADER_SIZE = 16;              // magic, version, padding, epoch day
+    static final int RECORD_SIZE = 49;
+    static final int FOOTER_SIZE = 4 * (DayRollup.HOURS + EventType.values().length + 2);
+    static final long FIXED_POINT = 100;
+
+    // Column offsets within a record
+    static final int TIME = 0;      // long, epoch milliseconds
+    static final int TYPE = 8;      // byte, EventType ordinal
+    static final int ACTOR = 9;     // int, dictionary id of the employee
+    static final int ITEM = 13;     // int, dictionary id of the menu item
+    static final int NOTE = 17;     // int, dictionary id of the order note
+    static final int NUMBER = 21;   // int, order id or table number
+    static final int FIRST = 25;    // long, price, old quantity or number of customers
+    static final int SECOND = 33;   // long, new quantity
+    static final int THIRD = 41;    // long, cost
+
+    // Instance variables
+    private final ByteBuffer data;
+    private final EventDictionary dictionary;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final LocalDate date;
+    private final int records;
+    private final boolean sealed;
+    private final int[] hourCounts = new int[DayRollup.HOURS];
+    private final int[] typeCounts = new int[EventType.values().length];
+
+    /**
+     * Reads a segment file.
+     *
+     * @param file       The segment file.
+     * @param dictionary The dictionary its names were encoded with.
+     * @throws IOException If the file cannot be read or is not a segment.
+     */
+    EventSegment(File file, EventDictionary dictionary) throws IOException {
+        this.data = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        this.dictionary = dictionary;
+        if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC || data.getShort(4) != VERSION)
+            throw new IOException(file + " is not an event segment.");
+        this.date = LocalDate.ofEpochDay(data.getLong(8));
+
+        int length = data.limit() - HEADER_SIZE;
+        sealed = length >= FOOTER_SIZE && data.getInt(data.limit() - 4) == FOOTER_MAGIC
+                && (length - FOOTER_SIZE) % RECORD_SIZE == 0
+                && data.getInt(data.limit() - 8) == (length - FOOTER_SIZE) / RECORD_SIZE;
+
+        if (sealed) {
+            records = (length - FOOTER_SIZE) / RECORD_SIZE;
+            int footer = HEADER_SIZE + records * RECORD_SIZE;
+            for (int hour = 0; hour < hourCounts.length; hour++) hourCounts[hour] = data.getInt(footer + 4 * hour);
+            footer += 4 * hourCounts.length;
+            for (int type = 0; type < typeCounts.length; type++) typeCounts[type] = data.getInt(footer + 4 * type);
+        } else {
+            records = length / RECORD_SIZE;
+            for (int i = 0; i < records; i++) {
+                hourCounts[getHour(i)]++;
+                if (getTypeCode(i) < typeCounts.length) typeCounts[getTypeCode(i)]++;
+            }
+        }
+    }
+
+    /**
+     * Getter for date.
+     *
+     * @return Returns the day this segment holds the events of.
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Returns whether the segment was sealed with a footer.
+     *
+     * @return Returns whether the segment is complete.
+     */
+    public boolean isSealed() {
+        return sealed;
+    }
+
+    /**
+     * Getter for the number of records.
+     *
+     * @return Returns the number of events in the segment.
+     */
+    public int getRecordCount() {
+        return records;
+    }
+
+    /**
+     * Gets the number of events of a type in the segment, without reading the records.
+     *
+     * @param type The event type.
+     * @return Returns the number of events of that type.
+     */
+    public int getCount(EventType type) {
+        return typeCounts[type.ordinal()];
+    }
+
+    /**
+     * Gets the index of the first record logged in or after the given hour.
+     *
+     * @param hour The hour of the day.
+     * @return Returns the index of the first record of that hour.
+     */
+    public int getFirstRecord(int hour) {
+        int index = 0;
+        for (int h = 0; h < hour; h++) index += hourCounts[h];
+        return index;
+    }
+
+    /**
+     * Builds the rollup of the day straight from the binary columns, without going through text.
+     *
+     * @return Returns the rollup of the segment's day.
+     */
+    public DayRollup rollup() {
+        DayRollup day = new DayRollup();
+        for (int i = 0; i < records; i++) {
+            int type = getTypeCode(i);
+            if (type == EventType.ORDER_PLACED.ordinal()) {
+                String menuItem = dictionary.decode(getInt(i, ITEM));
+                if (menuItem != null) day.addConsumption(menuItem);
+            } else if (type == EventType.ORDER_DELIVERED.ordinal()) {
+                day.addSale(getLong(i, FIRST) * 100 / FIXED_POINT);  // in cents
+            } else if (type == EventType.CUSTOMERS_SEATED.ordinal()) {
+                day.addCustomers(getHour(i), (int) getLong(i, FIRST));
+            }
+        }
+        return day;
+    }
+
+    /**
+     * Decodes every record of the segment into events with the same details as the lines of log.txt.
+     *
+     * @param ordinal The ordinal to give the first event.
+     * @return Returns the events of the segment, in the order they were logged.
+     */
+    public ArrayList<LogEvent> getEvents(long ordinal) {
+        ArrayList<LogEvent> events = new ArrayList<>(records);
+        for (int i = 0; i < records; i++) {
+            LogEvent event = getEvent(i, ordinal);
+            if (event != null) {
+                events.add(event);
+                ordinal++;
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Decodes a single record into an event.
+     *
+     * @param index   The index of the record.
+     * @param ordinal The ordinal to give the event.
+     * @return Returns the event, or null if the record has an unknown type.
+     */
+    public LogEvent getEvent(int index, long ordinal) {
+        if (getTypeCode(index) >= EventType.values().length) return null;
+        EventType type = EventType.values()[getTypeCode(index)];
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(getLong(index, TIME)), zone);
+        long first = getLong(index, FIRST), second = getLong(index, SECOND);
+
+        String[] details;
+        if (type.isOrder()) {
+            String note = dictionary.decode(getInt(index, NOTE));
+            details = new String[note != null ? 5 : 4];
+            details[0] = dictionary.decode(getInt(index, ACTOR));
+            details[1] = "Order ID:" + getInt(index, NUMBER);
+            details[2] = "Ordered Item: " + dictionary.decode(getInt(index, ITEM));
+            details[3] = "Order Price: " + first / (double) FIXED_POINT;
+            if (note != null) details[4] = "Note: " + note;
+        } else if (type == EventType.CUSTOMERS_SEATED) {
+            details = new String[]{"Number of Customers: " + first, "Table Number: " + getInt(index, NUMBER)};
+        } else {
+            details = new String[]{"Old Quantity: " + first / (double) FIXED_POINT,
+                    "New Quantity: " + second / (double) FIXED_POINT,
+                    "Change: " + Math.abs(second - first) / (double) FIXED_POINT,
+                    "Cost: " + getLong(index, THIRD) / (double) FIXED_POINT};
+        }
+        return new LogEvent(ordinal, time, type.getLabel(), details);
+    }
+
+    /**
+     * Reads the type column of a record.
+     *
+     * @param index The index of the record.
+     * @return Returns the EventType ordinal of the record.
+     */
+    private int getTypeCode(int index) {
+        return data.get(HEADER_SIZE + index * RECORD_SIZE + TYPE) & 0xFF;
+    }
+
+    /**
+     * Reads the hour of the day a record was logged in.
+     *
+     * @param index The index of the record.
+     * @return Returns the hour of the record.
+     */
+    private int getHour(int index) {
+        return Instant.ofEpochMilli(getLong(index, TIME)).atZone(zone).getHour();
+    }
+
+    /**
+     * Reads an int column of a record.
+     *
+     * @param index  The index of the record.
+     * @param column The offset of the column.
+     * @return Returns the value of the column.
+     */
+    private int getInt(int index, int column) {
+        return data.getInt(HEADER_SIZE + index * RECORD_SIZE + column);
+    }
+
+    /**
+     * Reads a long column of a record.
+     *
+     * @param index  The index of the record.
+     * @param column The offset of the column.
+     * @return Returns the value of the column.
+     */
+    private long getLong(int index, int column) {
+        return data.getLong(HEADER_SIZE + index * RECORD_SIZE + column);
+    }
+}
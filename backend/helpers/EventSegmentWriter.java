@@ -0,0 +1,143 @@
+package backend.helpers;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * An EventSegmentWriter appends the events of one day to a binary segment file (see EventSegment for the format).
+ * Reopening an existing segment drops its footer and any record cut off by a crash, so a day can be continued after
+ * a restart. Sealing the segment writes the footer.
+ */
+class EventSegmentWriter implements Closeable {
+
+    // Instance variables
+    private final LocalDate date;
+    private final EventDictionary dictionary;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ByteBuffer record = ByteBuffer.allocate(EventSegment.RECORD_SIZE);
+    private final int[] hourCounts = new int[DayRollup.HOURS];
+    private final int[] typeCounts = new int[EventType.values().length];
+    private int records;
+    private OutputStream output;
+
+    /**
+     * Opens the segment of a day for appending, creating it if necessary.
+     *
+     * @param file       The segment file.
+     * @param date       The day the segment holds.
+     * @param dictionary The dictionary to encode names with.
+     * @throws IOException If the file cannot be opened, or exists but is not a segment.
+     */
+    EventSegmentWriter(File file, LocalDate date, EventDictionary dictionary) throws IOException {
+        this.date = date;
+        this.dictionary = dictionary;
+
+        try (RandomAccessFile access = new RandomAccessFile(file, "rw")) {
+            if (access.length() > 0) {
+                EventSegment existing = new EventSegment(file, dictionary);
+                records = existing.getRecordCount();
+                for (int hour = 0; hour < hourCounts.length; hour++) {
+                    hourCounts[hour] = existing.getFirstRecord(hour + 1) - existing.getFirstRecord(hour);
+                }
+                for (EventType type : EventType.values()) typeCounts[type.ordinal()] = existing.getCount(type);
+                access.setLength(EventSegment.HEADER_SIZE + (long) records * EventSegment.RECORD_SIZE);
+            } else {
+                access.writeInt(EventSegment.MAGIC);
+                access.writeShort(EventSegment.VERSION);
+                access.writeShort(0);
+                access.writeLong(date.toEpochDay());
+            }
+        }
+        output = new BufferedOutputStream(new FileOutputStream(file, true), 64 * 1024);
+    }
+
+    /**
+     * Getter for date.
+     *
+     * @return Returns the day this segment holds.
+     */
+    LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Encodes an event as a fixed-width record and appends it.
+     *
+     * @param event The event to append. It must have been logged on this segment's day.
+     * @return Returns whether the event was appended, which fails for unknown types and malformed details.
+     * @throws IOException If writing fails.
+     */
+    boolean append(LogEvent event) throws IOException {
+        EventType type = EventType.of(event.getType());
+        if (type == null) return false;
+
+        int actor = EventDictionary.NONE, item = EventDictionary.NONE, note = EventDictionary.NONE, number = 0;
+        long first = 0, second = 0, third = 0;
+        try {
+            if (type.isOrder()) {
+                number = Integer.parseInt(event.getDetail(1, "Order ID:"));
+                first = fixedPoint(event.getDetail(3, "Order Price: "));
+                actor = dictionary.encode(event.getDetail(0, ""));
+                item = dictionary.encode(event.getDetail(2, "Ordered Item: "));
+                note = dictionary.encode(event.getDetail(4, "Note: "));
+            } else if (type == EventType.CUSTOMERS_SEATED) {
+                first = Long.parseLong(event.getDetail(0, "Number of Customers: "));
+                number = Integer.parseInt(event.getDetail(1, "Table Number: "));
+            } else {
+                first = fixedPoint(event.getDetail(0, "Old Quantity: "));
+                second = fixedPoint(event.getDetail(1, "New Quantity: "));
+                third = fixedPoint(event.getDetail(3, "Cost: "));
+            }
+        } catch (NumberFormatException | NullPointerException e) {
+            return false;
+        }
+
+        record.clear();
+        record.putLong(event.getTime().atZone(zone).toInstant().toEpochMilli());
+        record.put((byte) type.ordinal());
+        record.putInt(actor).putInt(item).putInt(note).putInt(number);
+        record.putLong(first).putLong(second).putLong(third);
+        output.write(record.array());
+
+        records++;
+        hourCounts[event.getTime().getHour()]++;
+        typeCounts[type.ordinal()]++;
+        return true;
+    }
+
+    /**
+     * Writes any buffered records to disk.
+     *
+     * @throws IOException If writing fails.
+     */
+    void flush() throws IOException {
+        output.flush();
+    }
+
+    /**
+     * Writes the footer and closes the segment.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        DataOutputStream footer = new DataOutputStream(output);
+        for (int count : hourCounts) footer.writeInt(count);
+        for (int count : typeCounts) footer.writeInt(count);
+        footer.writeInt(records);
+        footer.writeInt(EventSegment.FOOTER_MAGIC);
+        footer.close();
+    }
+
+    /**
+     * Converts a decimal number to fixed-point hundredths.
+     *
+     * @param value The number as written in log.txt.
+     * @return Returns the number of hundredths.
+     */
+    private static long fixedPoint(String value) {
+        return Math.round(Double.parseDouble(value) * EventSegment.FIXED_POINT);
+    }
+}
@@ -0,0 +1,141 @@
+package backend.helpers;
+
+import java.io.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * EventSegments is a directory of binary event segments, one per day, kept alongside log.txt. It is much smaller
+ * than the text log and is read without any parsing. Events are appended to the segment of their day, and the
+ * segment of the previous day is sealed when the day changes.
+ * <p>
+ * Running this class converts an existing log.txt: {@code EventSegments [log file] [segment directory]}.
+ */
+public class EventSegments implements Closeable {
+
+    // Constants
+    public static final String DEFAULT_DIRECTORY = "events";
+    private static final String DICTIONARY_FILE = "dictionary.dat";
+    private static final String EXTENSION = ".seg";
+    private static final DateTimeFormatter FILE_NAME = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final long FLUSH_INTERVAL = 1000;    // milliseconds between flushes of the open segment
+
+    // Instance variables
+    private final File directory;
+    private final EventDictionary dictionary;
+    private EventSegmentWriter writer;
+    private long lastFlush;
+
+    /**
+     * Opens a segment directory, creating it if necessary.
+     *
+     * @param directory The directory holding the segments and their dictionary.
+     * @throws IOException If the directory or its dictionary cannot be opened.
+     */
+    public EventSegments(File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Cannot create " + directory);
+        this.directory = directory;
+        this.dictionary = new EventDictionary(new File(directory, DICTIONARY_FILE));
+    }
+
+    /**
+     * Appends an event to the segment of its day, sealing the previous segment if the day changed.
+     *
+     * @param event The event to append.
+     * @return Returns whether the event was appended.
+     */
+    public synchronized boolean append(LogEvent event) {
+        try {
+            LocalDate date = event.getTime().toLocalDate();
+            if (writer == null || !writer.getDate().equals(date)) {
+                if (writer != null) writer.close();
+                writer = null;
+                writer = new EventSegmentWriter(getFile(date), date, dictionary);
+            }
+            boolean appended = writer.append(event);
+            if (System.currentTimeMillis() - lastFlush >= FLUSH_INTERVAL) {
+                writer.flush();
+                lastFlush = System.currentTimeMillis();
+            }
+            return appended;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Opens the segment of a day for reading.
+     *
+     * @param date The day.
+     * @return Returns the segment, or null if there is no readable segment for that day.
+     */
+    public synchronized EventSegment getSegment(LocalDate date) {
+        File file = getFile(date);
+        if (!file.exists()) return null;
+        try {
+            if (writer != null && writer.getDate().equals(date)) writer.flush();
+            return new EventSegment(file, dictionary);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Builds the rollup of a day from its segment.
+     *
+     * @param date The day.
+     * @return Returns the rollup of that day, or null if there is no segment for it.
+     */
+    public DayRollup rollup(LocalDate date) {
+        EventSegment segment = getSegment(date);
+        return segment != null ? segment.rollup() : null;
+    }
+
+    /**
+     * Seals the open segment and closes the dictionary.
+     *
+     * @throws IOException If writing fails.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) writer.close();
+        writer = null;
+        dictionary.close();
+    }
+
+    /**
+     * Gets the file of the segment of a day.
+     *
+     * @param date The day.
+     * @return Returns the segment file.
+     */
+    private File getFile(LocalDate date) {
+        return new File(directory, date.format(FILE_NAME) + EXTENSION);
+    }
+
+    /**
+     * Converts a text log into segments. The segment directory must not hold any segments yet.
+     *
+     * @param args The log file (log.txt by default) and the segment directory (events by default).
+     * @throws IOException If reading or writing fails.
+     */
+    public static void main(String[] args) throws IOException {
+        File logFile = new File(args.length > 0 ? args[0] : "log.txt");
+        File directory = new File(args.length > 1 ? args[1] : DEFAULT_DIRECTORY);
+        String[] existing = directory.list((dir, name) -> name.endsWith(EXTENSION));
+        if (existing != null && existing.length > 0) {
+            System.err.println(directory + " already holds segments.");
+            System.exit(1);
+        }
+
+        long converted = 0, skipped = 0;
+        try (EventSegments segments = new EventSegments(directory);
+             LogCursor cursor = new LogCursor(logFile, 0, 0)) {
+            while (cursor.next()) {
+                if (segments.append(cursor.getEvent())) converted++;
+                else skipped++;
+            }
+        }
+        System.out.println("Converted " + converted + " events, skipped " + skipped + ".");
+    }
+}
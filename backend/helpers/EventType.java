@@ -0,0 +1,64 @@
+package backend.helpers;
+
+import java.util.HashMap;
+
+/**
+ * The types of events written to the log. Binary event segments store the ordinal of the type instead of its label.
+ */
+public enum EventType {
+    ORDER_CONSTRUCTING("ORDER CONSTRUCTING"),
+    ORDER_PLACED("ORDER PLACED"),
+    ORDER_PREPARING("ORDER PREPARING"),
+    ORDER_READY("ORDER READY"),
+    ORDER_DELIVERED("ORDER DELIVERED"),
+    ORDER_REMAKE("ORDER REMAKE"),
+    ORDER_CANCEL("ORDER CANCEL"),
+    INGREDIENT_ADDED("INGREDIENT ADDED"),
+    INGREDIENT_USED("INGREDIENT USED"),
+    CUSTOMERS_SEATED("CUSTOMERS SEATED");
+
+    private static final HashMap<String, EventType> BY_LABEL = new HashMap<>();
+
+    static {
+        for (EventType type : values()) BY_LABEL.put(type.label, type);
+    }
+
+    private final String label;
+
+    /**
+     * Constructs an event type.
+     *
+     * @param label The label of the type as written in log.txt.
+     */
+    EventType(String label) {
+        this.label = label;
+    }
+
+    /**
+     * Getter for label.
+     *
+     * @return Returns the label of the type as written in log.txt, like "ORDER PLACED".
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Returns whether this is a change to the state of an order.
+     *
+     * @return Returns whether events of this type describe an order.
+     */
+    public boolean isOrder() {
+        return label.startsWith("ORDER ");
+    }
+
+    /**
+     * Finds the event type with the given label.
+     *
+     * @param label The label as written in log.txt.
+     * @return Returns the event type, or null if there is none with that label.
+     */
+    public static EventType of(String label) {
+        return BY_LABEL.get(label);
+    }
+}
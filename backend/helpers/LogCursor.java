@@ -0,0 +1,115 @@
+package backend.helpers;
+
+import java.io.*;
+
+/**
+ * A LogCursor streams the events of a log file one at a time, in the order they were written, starting from a byte
+ * offset. Only complete lines are read, and the cursor keeps track of the offset just past the last one, so reading
+ * can later be resumed from there.
+ */
+public class LogCursor implements Closeable {
+
+    // Instance variables
+    private InputStream input;
+    private long offset;
+    private long ordinal;
+    private LogEvent current;
+
+    /**
+     * Opens a cursor on a log file.
+     *
+     * @param file    The log file to read.
+     * @param offset  The byte offset to start reading from (must be the start of a line).
+     * @param ordinal The ordinal of the first event read.
+     * @throws IOException If the file cannot be opened.
+     */
+    public LogCursor(File file, long offset, long ordinal) throws IOException {
+        this(new FileInputStream(file), ordinal);
+        this.offset = offset;
+
+        long skipped = 0;
+        while (skipped < offset) {
+            long n = input.skip(offset - skipped);
+            if (n <= 0) {
+                input.close();
+                throw new EOFException("Offset is past the end of " + file);
+            }
+            skipped += n;
+        }
+    }
+
+    /**
+     * Opens a cursor on a stream of log lines, like a decompressed log partition. Offsets count from the start of
+     * the stream.
+     *
+     * @param input   The stream to read.
+     * @param ordinal The ordinal of the first event read.
+     */
+    public LogCursor(InputStream input, long ordinal) {
+        this.input = new BufferedInputStream(input);
+        this.ordinal = ordinal;
+    }
+
+    /**
+     * Moves the cursor to the next valid event. Malformed lines are skipped without using up an ordinal.
+     *
+     * @return Returns whether there was another event.
+     * @throws IOException If reading fails.
+     */
+    public boolean next() throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        long position = offset;
+        int b;
+        while ((b = input.read()) != -1) {
+            position++;
+            if (b == '\n') {
+                offset = position;
+                current = LogEvent.parse(line.toString(), ordinal);
+                if (current != null) {
+                    ordinal++;
+                    return true;
+                }
+                line.reset();
+            } else if (b != '\r') line.write(b);
+        }
+        current = null;
+        return false;
+    }
+
+    /**
+     * Getter for the event the cursor is on.
+     *
+     * @return Returns the current event, or null if the cursor is exhausted.
+     */
+    public LogEvent getEvent() {
+        return current;
+    }
+
+    /**
+     * Getter for offset.
+     *
+     * @return Returns the byte offset just past the last complete line read.
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Getter for ordinal.
+     *
+     * @return Returns the ordinal the next event will be given.
+     */
+    public long getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException If closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        input.close();
+    }
+}
@@ -0,0 +1,102 @@
+package backend.helpers;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A LogEvent is a single parsed line of log.txt. Every event carries an ordinal (its position among all events in
+ * the log), so events logged in the same second stay distinct and keep their order.
+ */
+public class LogEvent {
+
+    // Constants
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy/MM/dd");
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
+    // Instance variables
+    private final long ordinal;
+    private final LocalDateTime time;
+    private final String type;
+    private final String[] details;
+
+    /**
+     * Constructs a LogEvent.
+     *
+     * @param ordinal The position of the event in the log.
+     * @param time    The time the event was logged.
+     * @param type    The type of the event, like "ORDER PLACED".
+     * @param details The remaining parts of the line, trimmed.
+     */
+    public LogEvent(long ordinal, LocalDateTime time, String type, String[] details) {
+        this.ordinal = ordinal;
+        this.time = time;
+        this.type = type;
+        this.details = details;
+    }
+
+    /**
+     * Parses a line of log.txt into an event.
+     *
+     * @param line    The line to parse.
+     * @param ordinal The ordinal to give the event.
+     * @return Returns the parsed event, or null if the line is not a valid event.
+     */
+    public static LogEvent parse(String line, long ordinal) {
+        String[] data = line.split("\\|");
+        if (data.length < 3) return null;
+
+        LocalDateTime time;
+        try {
+            time = LocalDateTime.of(LocalDate.parse(data[0].trim(), DATE_FORMAT),
+                    LocalTime.parse(data[1].trim(), TIME_FORMAT));
+        } catch (DateTimeParseException ignored) {
+            return null;
+        }
+
+        String[] details = new String[data.length - 3];
+        for (int i = 3; i < data.length; i++) details[i - 3] = data[i].trim();
+        return new LogEvent(ordinal, time, data[2].trim(), details);
+    }
+
+    /**
+     * Getter for ordinal.
+     *
+     * @return Returns the position of the event in the log.
+     */
+    public long getOrdinal() {
+        return ordinal;
+    }
+
+    /**
+     * Getter for time.
+     *
+     * @return Returns the time the event was logged.
+     */
+    public LocalDateTime getTime() {
+        return time;
+    }
+
+    /**
+     * Getter for type.
+     *
+     * @return Returns the type of the event, like "ORDER PLACED".
+     */
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * Gets the value of a detail of the event with its label removed (e.g. "Ordered Item: burger" gives "burger").
+     *
+     * @param position The position of the detail after the event type.
+     * @param label    The label in front of the value, like "Ordered Item: ".
+     * @return Returns the value of the detail, or null if the event has no detail at that position.
+     */
+    public String getDetail(int position, String label) {
+        if (position >= details.length) return null;
+        return details[position].replace(label, "").trim();
+    }
+}
@@ -1,12 +1,14 @@
 package backend.helpers;
 
-import backend.employees.Employee;
+import backend.Money;
+import backend.OrderEvent;
 import backend.foods.Ingredient;
 import backend.foods.Order;
 
 import java.io.*;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.time.YearMonth;
 import java.util.Date;
 
 /**
@@ -18,7 +20,11 @@ import java.util.Date;
 
 public class LogManager {
 
+    private static final long DEFAULT_FLUSH_INTERVAL = 1000;    // milliseconds between flushes
+
     private static File logFile = new File("log.txt");
+    private static File partitionDirectory = new File(LogPartitions.DEFAULT_DIRECTORY);
+    private static File segmentDirectory = new File(EventSegments.DEFAULT_DIRECTORY);
 
     private static LogManager instance = new LogManager();
 
@@ -27,50 +33,122 @@ public class LogManager {
     }
 
     private DateFormat dateFormat = new SimpleDateFormat("yyyy/MM/dd | HH:mm:ss");
+    private LogWriter writer;
+    private EventSegments segments;
+    private LogPartitions partitions;
 
     /**
-     * Constructor for the LogManager class
+     * Constructor for the LogManager class. Moves the events of earlier months out of log.txt into compressed
+     * partitions, then starts the background writer, which is drained when the application shuts down, and feeds
+     * every written event to the analytics index. If the binary segment directory exists (e.g. after converting
+     * log.txt with EventSegments), events are also appended to it.
      */
     private LogManager() {
         try {
             logFile.createNewFile();
+            if (segmentDirectory.isDirectory()) segments = new EventSegments(segmentDirectory);
         } catch (IOException ignored) {
         }
+
+        // Index log.txt before rotating it, so the index only has to move its checkpoint afterwards
+        AnalyticsIndex index = AnalyticsIndex.getInstance();
+        partitions = new LogPartitions(logFile, partitionDirectory);
+        if (partitions.rotate(YearMonth.now())) index.rotated(logFile.length());
+        writer = new LogWriter(logFile, LogWriter.FlushPolicy.INTERVAL, DEFAULT_FLUSH_INTERVAL, this::written);
+        Runtime.getRuntime().addShutdownHook(new Thread(this::shutdown));
+    }
+
+    /**
+     * Changes how often the log is flushed to disk.
+     *
+     * @param policy     The flush policy to use.
+     * @param flushEvery Milliseconds between flushes for INTERVAL, or events between flushes for BATCH.
+     */
+    public void setFlushPolicy(LogWriter.FlushPolicy policy, long flushEvery) {
+        writer.setFlushPolicy(policy, flushEvery);
+    }
+
+    /**
+     * Getter for partitions.
+     *
+     * @return Returns the monthly partitions of the log.
+     */
+    public LogPartitions getPartitions() {
+        return partitions;
+    }
+
+    /**
+     * Getter for segments.
+     *
+     * @return Returns the binary event segments, or null if they are not being written.
+     */
+    public EventSegments getSegments() {
+        return segments;
+    }
+
+    /**
+     * Writes out every event that has been logged so far, closes log.txt and the event segments and saves the
+     * analytics index. Events logged afterwards are dropped.
+     */
+    public void shutdown() {
+        writer.close();
+        if (segments != null) {
+            try {
+                segments.close();
+            } catch (IOException ignored) {
+            }
+        }
+        AnalyticsIndex.getInstance().save();
+    }
+
+    /**
+     * Called by the background writer after each line is written to log.txt.
+     *
+     * @param line The line that was written.
+     */
+    private void written(String line) {
+        LogEvent event = AnalyticsIndex.getInstance().append(line);
+        if (event != null && segments != null) segments.append(event);
+    }
+
+    /**
+     * Formats the time of an event. Events are logged from more than one thread, and the date format is not safe to
+     * share between them.
+     *
+     * @param date The time of the event.
+     * @return Returns the formatted time.
+     */
+    private synchronized String format(Date date) {
+        return dateFormat.format(date);
     }
 
     /**
      * Logs in a specified piece of text into log.txt. This method is used as a
-     * helper in the other log methods.
+     * helper in the other log methods. The text is handed to the background writer, so this never waits on disk.
      *
      * @param text String piece of text which needs to be logged
-     * @return boolean true or false depending on if the text was logged properly
+     * @return boolean true or false depending on if the text was accepted for logging
      */
     private boolean log(String text) {
-        try {
-            BufferedWriter fileWriter = new BufferedWriter(new FileWriter(logFile, true));
-            fileWriter.write(text + System.lineSeparator());
-            fileWriter.close();
-            return true;
-        } catch (IOException ex) {
-            return false;
-        }
+        return writer.append(text);
     }
 
     /**
-     * Logs in any change to the state of an order. This includes order placed, ready,
-     * prepared and delivered.
+     * Logs in any change to the state of an order made by an employee, as published on the OrderBus. This includes
+     * order placed, preparing, ready, delivered, remade and cancelled.
      *
-     * @param o Order whose state must be logged
-     * @param e Employee corresponding to the specific change of state of this order
+     * @param event The change of state to log
      * @return boolean true or false based on if the log went through properly
      */
-    public boolean log(Order o, Employee e) {
-        String note = !o.getNotes().trim().equals("") ?
-                " | Note: " + o.getNotes().trim().replace("\n", "; ") : "";
-
-        return log(dateFormat.format(new Date()) + " | ORDER " + o.getState() +
-                " | " + e.toString() + " | Order ID:" + o.getId() +
-                " | Ordered Item: " + o.getName() + " | Order Price: " + Math.round(o.getPrice() * 100.0) / 100.0 +
+    public boolean log(OrderEvent event) {
+        Order o = event.getOrder();
+        if (event.getEmployee() == null) return false;
+        String note = !event.getNotes().trim().equals("") ?
+                " | Note: " + event.getNotes().trim().replace("\n", "; ") : "";
+
+        return log(format(new Date(event.getTime())) + " | ORDER " + event.getState() +
+                " | " + event.getEmployee().toString() + " | Order ID:" + o.getId() +
+                " | Ordered Item: " + o.getName() + " | Order Price: " + Money.toDollars(event.getPriceCents()) +
                 note);
     }
 
@@ -90,7 +168,7 @@ public class LogManager {
 
         if (newQuantity - oldQuantity == 0) return false;
 
-        return log(dateFormat.format(new Date()) + " | INGREDIENT " +
+        return log(format(new Date()) + " | INGREDIENT " +
                 (newQuantity > oldQuantity ? "ADDED" : "USED") + " | Old Quantity: " +
                 oldQuantity +
                 " | New Quantity: " + newQuantity + " | Change: " +
@@ -108,7 +186,7 @@ public class LogManager {
      */
     public boolean log(int tableNumber, int numCustomers) {
 
-        return log(dateFormat.format(new Date()) + " | CUSTOMERS SEATED |" + " " +
+        return log(format(new Date()) + " | CUSTOMERS SEATED |" + " " +
                 "Number of Customers: " +
                 numCustomers + " | Table Number: " + tableNumber);
     }
@@ -0,0 +1,406 @@
+package backend.helpers;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * LogPartitions splits the history of log.txt into one compressed partition per month. log.txt only holds the
+ * current month: when the application starts in a new month, the lines of earlier months are moved out of log.txt
+ * into gzip files in the partition directory. A manifest lists every partition with the times of its first and
+ * last events, so a date range only has to read the partitions overlapping it.
+ * <p>
+ * Partition files are never modified once written. A rotation first writes the new partitions and the new content
+ * of log.txt to separate files, then commits them by writing the manifest, and only then replaces log.txt. If the
+ * application stops in between, the rotation is finished (or its leftovers removed) the next time.
+ */
+public class LogPartitions {
+
+    // Constants
+    public static final String DEFAULT_DIRECTORY = "logs";
+    private static final String MANIFEST = "manifest.txt";
+    private static final String PENDING = "PENDING";
+    private static final String ROTATING_SUFFIX = ".rotating";
+    private static final String EXTENSION = ".txt.gz";
+    private static final DateTimeFormatter MONTH = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    // Instance variables
+    private final File logFile;
+    private final File directory;
+
+    /**
+     * Constructs the partitions of a log file.
+     *
+     * @param logFile   The active log file, holding the current month.
+     * @param directory The directory holding the partitions and their manifest.
+     */
+    public LogPartitions(File logFile, File directory) {
+        this.logFile = logFile;
+        this.directory = directory;
+    }
+
+    /**
+     * A single partition listed in the manifest.
+     */
+    public static class Partition {
+
+        private final File file;
+        private final LocalDateTime first, last;
+        private final long events;
+
+        /**
+         * Constructs a partition entry.
+         *
+         * @param file   The partition file.
+         * @param first  The time of its first event.
+         * @param last   The time of its last event.
+         * @param events The number of events in it.
+         */
+        Partition(File file, LocalDateTime first, LocalDateTime last, long events) {
+            this.file = file;
+            this.first = first;
+            this.last = last;
+            this.events = events;
+        }
+
+        /**
+         * Getter for file.
+         *
+         * @return Returns the partition file.
+         */
+        public File getFile() {
+            return file;
+        }
+
+        /**
+         * Getter for first.
+         *
+         * @return Returns the time of the first event in the partition.
+         */
+        public LocalDateTime getFirst() {
+            return first;
+        }
+
+        /**
+         * Getter for last.
+         *
+         * @return Returns the time of the last event in the partition.
+         */
+        public LocalDateTime getLast() {
+            return last;
+        }
+
+        /**
+         * Getter for events.
+         *
+         * @return Returns the number of events in the partition.
+         */
+        public long getEvents() {
+            return events;
+        }
+
+        /**
+         * Returns whether the partition has events in the range [start, end).
+         *
+         * @param start The first day of the range.
+         * @param end   The day after the last day of the range.
+         * @return Returns whether the partition overlaps the range.
+         */
+        public boolean overlaps(LocalDate start, LocalDate end) {
+            return first.toLocalDate().isBefore(end) && !last.toLocalDate().isBefore(start);
+        }
+
+        /**
+         * Opens a cursor over the events of the partition, decompressing it if necessary.
+         *
+         * @param ordinal The ordinal of the first event read.
+         * @return Returns the cursor.
+         * @throws IOException If the partition cannot be opened.
+         */
+        public LogCursor open(long ordinal) throws IOException {
+            InputStream input = new FileInputStream(file);
+            if (file.getName().endsWith(".gz")) input = new GZIPInputStream(input, 64 * 1024);
+            return new LogCursor(input, ordinal);
+        }
+    }
+
+    /**
+     * Gets every partition, oldest first.
+     *
+     * @return Returns the partitions listed in the manifest.
+     */
+    public synchronized List<Partition> getPartitions() {
+        return readManifest().partitions;
+    }
+
+    /**
+     * Gets the partitions that have events in the range [start, end), oldest first.
+     *
+     * @param start The first day of the range.
+     * @param end   The day after the last day of the range.
+     * @return Returns the overlapping partitions.
+     */
+    public List<Partition> getPartitions(LocalDate start, LocalDate end) {
+        List<Partition> overlapping = new ArrayList<>();
+        for (Partition partition : getPartitions()) {
+            if (partition.overlaps(start, end)) overlapping.add(partition);
+        }
+        return overlapping;
+    }
+
+    /**
+     * Builds the rollups of the days in the range [start, end), reading only the partitions overlapping it and the
+     * active log file.
+     *
+     * @param start The first day of the range.
+     * @param end   The day after the last day of the range.
+     * @return Returns a map of days to their rollups.
+     */
+    public TreeMap<LocalDate, DayRollup> rollup(LocalDate start, LocalDate end) {
+        TreeMap<LocalDate, DayRollup> days = new TreeMap<>();
+        List<Partition> partitions = getPartitions(start, end);
+        for (int i = 0; i <= partitions.size(); i++) {
+            try (LogCursor cursor = i < partitions.size() ? partitions.get(i).open(0) : new LogCursor(logFile, 0, 0)) {
+                while (cursor.next()) {
+                    LocalDate date = cursor.getEvent().getTime().toLocalDate();
+                    if (!date.isBefore(start) && date.isBefore(end))
+                        days.computeIfAbsent(date, d -> new DayRollup()).add(cursor.getEvent());
+                }
+            } catch (IOException ignored) {
+            }
+        }
+        return days;
+    }
+
+    /**
+     * Moves the lines of every month before the current one out of the log file into new partitions. Lines that
+     * are not valid events stay with the event before them.
+     *
+     * @param current The current month, whose lines stay in the log file.
+     * @return Returns whether the log file was changed (by this rotation or by finishing an interrupted one).
+     */
+    public synchronized boolean rotate(YearMonth current) {
+        boolean recovered = recover();
+        if (!startsBefore(current)) return recovered;
+
+        Manifest manifest = readManifest();
+        File rotating = new File(logFile.getPath() + ROTATING_SUFFIX);
+        TreeMap<YearMonth, PartitionWriter> writers = new TreeMap<>();
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs()) return recovered;
+            try (BufferedReader reader = new BufferedReader(new FileReader(logFile));
+                 BufferedWriter retained = new BufferedWriter(new FileWriter(rotating))) {
+                YearMonth month = null;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    LogEvent event = LogEvent.parse(line, 0);
+                    if (event != null) month = YearMonth.from(event.getTime());
+                    if (month == null || !month.isBefore(current)) {
+                        retained.write(line);
+                        retained.newLine();
+                    } else {
+                        PartitionWriter writer = writers.get(month);
+                        if (writer == null) {
+                            writer = new PartitionWriter(newFile(month));
+                            writers.put(month, writer);
+                        }
+                        writer.write(line, event);
+                    }
+                }
+            } finally {
+                for (PartitionWriter writer : writers.values()) writer.close();
+            }
+
+            for (PartitionWriter writer : writers.values()) {
+                if (writer.first != null)
+                    manifest.partitions.add(new Partition(writer.file, writer.first, writer.last, writer.events));
+            }
+            manifest.partitions.sort(Comparator.comparing(Partition::getFirst));
+            manifest.pending = rotating.getName();
+            writeManifest(manifest);
+        } catch (IOException e) {
+            for (PartitionWriter writer : writers.values()) writer.file.delete();
+            rotating.delete();
+            return recovered;
+        }
+
+        recover();
+        return true;
+    }
+
+    /**
+     * Finishes a rotation that was committed to the manifest but did not replace the log file yet, and removes
+     * files left behind by a rotation that was never committed.
+     *
+     * @return Returns whether the log file was replaced.
+     */
+    private boolean recover() {
+        Manifest manifest = readManifest();
+        boolean replaced = false;
+        if (manifest.pending != null) {
+            File rotating = new File(logFile.getAbsoluteFile().getParentFile(), manifest.pending);
+            try {
+                if (rotating.exists()) {
+                    Files.move(rotating.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                            StandardCopyOption.ATOMIC_MOVE);
+                    replaced = true;
+                }
+                manifest.pending = null;
+                writeManifest(manifest);
+            } catch (IOException e) {
+                return false;
+            }
+        } else {
+            new File(logFile.getPath() + ROTATING_SUFFIX).delete();
+        }
+
+        Set<String> listed = new HashSet<>();
+        for (Partition partition : manifest.partitions) listed.add(partition.file.getName());
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(EXTENSION) && !listed.contains(name));
+        if (files != null) for (File file : files) file.delete();
+        return replaced;
+    }
+
+    /**
+     * Checks whether the first event of the log file is from before the given month.
+     *
+     * @param month The month to compare to.
+     * @return Returns whether the log file has events to rotate.
+     */
+    private boolean startsBefore(YearMonth month) {
+        try (LogCursor cursor = new LogCursor(logFile, 0, 0)) {
+            return cursor.next() && YearMonth.from(cursor.getEvent().getTime()).isBefore(month);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Picks an unused file name for a new partition of a month.
+     *
+     * @param month The month of the partition.
+     * @return Returns the new partition file.
+     */
+    private File newFile(YearMonth month) {
+        File file = new File(directory, "log-" + month.format(MONTH) + EXTENSION);
+        for (int i = 2; file.exists(); i++) {
+            file = new File(directory, "log-" + month.format(MONTH) + "." + i + EXTENSION);
+        }
+        return file;
+    }
+
+    /**
+     * The content of the manifest file.
+     */
+    private static class Manifest {
+        private List<Partition> partitions = new ArrayList<>();
+        private String pending;
+    }
+
+    /**
+     * Reads the manifest. Each line is either "file | first | last | events" or "PENDING | file".
+     *
+     * @return Returns the manifest, which is empty if there is no manifest file.
+     */
+    private Manifest readManifest() {
+        Manifest manifest = new Manifest();
+        File file = new File(directory, MANIFEST);
+        if (!file.exists()) return manifest;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] data = line.split(" \\| ");
+                if (data.length == 2 && data[0].equals(PENDING)) manifest.pending = data[1];
+                else if (data.length == 4) {
+                    manifest.partitions.add(new Partition(new File(directory, data[0]), LocalDateTime.parse(data[1]),
+                            LocalDateTime.parse(data[2]), Long.parseLong(data[3])));
+                }
+            }
+        } catch (IOException | DateTimeParseException | NumberFormatException ignored) {
+        }
+        return manifest;
+    }
+
+    /**
+     * Replaces the manifest file atomically.
+     *
+     * @param manifest The manifest to write.
+     * @throws IOException If writing fails.
+     */
+    private void writeManifest(Manifest manifest) throws IOException {
+        File file = new File(directory, MANIFEST);
+        File temp = new File(directory, MANIFEST + ".tmp");
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp))) {
+            for (Partition partition : manifest.partitions) {
+                writer.write(partition.file.getName() + " | " + partition.first + " | " + partition.last + " | " +
+                        partition.events);
+                writer.newLine();
+            }
+            if (manifest.pending != null) {
+                writer.write(PENDING + " | " + manifest.pending);
+                writer.newLine();
+            }
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Writes the lines of one month into a new compressed partition, keeping track of its time bounds.
+     */
+    private static class PartitionWriter implements Closeable {
+
+        private final File file;
+        private final BufferedWriter writer;
+        private LocalDateTime first, last;
+        private long events;
+
+        /**
+         * Creates a partition file.
+         *
+         * @param file The file to create.
+         * @throws IOException If the file cannot be created.
+         */
+        private PartitionWriter(File file) throws IOException {
+            this.file = file;
+            this.writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(file),
+                    64 * 1024)));
+        }
+
+        /**
+         * Writes a line to the partition.
+         *
+         * @param line  The line to write.
+         * @param event The event parsed from the line, or null if it is not a valid event.
+         * @throws IOException If writing fails.
+         */
+        private void write(String line, LogEvent event) throws IOException {
+            writer.write(line);
+            writer.newLine();
+            if (event != null) {
+                if (first == null) first = event.getTime();
+                last = event.getTime();
+                events++;
+            }
+        }
+
+        /**
+         * Finishes the compressed stream and closes the file.
+         *
+         * @throws IOException If writing fails.
+         */
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
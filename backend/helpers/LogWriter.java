@@ -0,0 +1,210 @@
+package backend.helpers;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * The LogWriter appends lines to a file from a single background thread. Lines are handed over through a bounded
+ * queue, so callers never touch the file themselves. The file is kept open for the lifetime of the writer, and
+ * writes are grouped and flushed according to the chosen flush policy. An optional listener is told about every
+ * line once it has been written.
+ */
+public class LogWriter implements Runnable {
+
+    /**
+     * Durability modes that decide when buffered lines are flushed to disk.
+     */
+    public enum FlushPolicy {
+        EVERY_EVENT,    // flush after every line
+        INTERVAL,       // flush at most every N milliseconds
+        BATCH           // flush after every N lines
+    }
+
+    // Constants
+    private static final int QUEUE_CAPACITY = 8192;
+    private static final long OFFER_TIMEOUT = 500;     // milliseconds a caller waits on a full queue
+    private static final String END_OF_STREAM = new String("END_OF_STREAM");
+
+    // Instance variables
+    private final File file;
+    private final BlockingQueue<String> queue;
+    private final Thread thread;
+    private final Consumer<String> listener;
+    private volatile FlushPolicy policy;
+    private volatile long flushEvery;
+    private volatile boolean closed;
+    private BufferedWriter fileWriter;
+
+    /**
+     * Constructs a writer for the given file and starts its background thread.
+     *
+     * @param file       The file that lines are appended to.
+     * @param policy     The policy deciding when lines are flushed.
+     * @param flushEvery Milliseconds between flushes for INTERVAL, or lines between flushes for BATCH.
+     */
+    public LogWriter(File file, FlushPolicy policy, long flushEvery) {
+        this(file, policy, flushEvery, null);
+    }
+
+    /**
+     * Constructs a writer for the given file with a listener, and starts its background thread.
+     *
+     * @param file       The file that lines are appended to.
+     * @param policy     The policy deciding when lines are flushed.
+     * @param flushEvery Milliseconds between flushes for INTERVAL, or lines between flushes for BATCH.
+     * @param listener   Called on the writer thread with every line after it is written (may be null).
+     */
+    public LogWriter(File file, FlushPolicy policy, long flushEvery, Consumer<String> listener) {
+        this.file = file;
+        this.listener = listener;
+        this.queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        setFlushPolicy(policy, flushEvery);
+
+        thread = new Thread(this, "log-writer-" + file.getName());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Changes the flush policy of the writer. Takes effect from the next group of lines written.
+     *
+     * @param policy     The policy deciding when lines are flushed.
+     * @param flushEvery Milliseconds between flushes for INTERVAL, or lines between flushes for BATCH.
+     */
+    public void setFlushPolicy(FlushPolicy policy, long flushEvery) {
+        this.policy = policy;
+        this.flushEvery = Math.max(1, flushEvery);
+    }
+
+    /**
+     * Hands a line over to the background thread. Waits briefly if the queue is full.
+     *
+     * @param line The line to append (without a line separator).
+     * @return Returns whether the line was accepted by the writer.
+     */
+    public boolean append(String line) {
+        if (closed) return false;
+        try {
+            return queue.offer(line, OFFER_TIMEOUT, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Stops accepting lines, waits for every queued line to be written and flushed, and closes the file.
+     * Calling this more than once has no further effect.
+     */
+    public void close() {
+        synchronized (this) {
+            if (closed) return;
+            closed = true;
+        }
+        try {
+            queue.put(END_OF_STREAM);
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The loop of the background thread. Takes lines off the queue in groups, writes them, and flushes whenever
+     * the flush policy asks for it.
+     */
+    @Override
+    public void run() {
+        List<String> group = new ArrayList<>();
+        long unflushed = 0;
+        long lastFlush = System.currentTimeMillis();
+
+        while (true) {
+            String line;
+            try {
+                line = unflushed > 0 && policy == FlushPolicy.INTERVAL ?
+                        queue.poll(Math.max(0, lastFlush + flushEvery - System.currentTimeMillis()),
+                                TimeUnit.MILLISECONDS) : queue.take();
+            } catch (InterruptedException e) {
+                line = END_OF_STREAM;
+            }
+
+            boolean ending = false;
+            if (line != null) {
+                group.add(line);
+                queue.drainTo(group);
+                for (String text : group) {
+                    if (text == END_OF_STREAM) {
+                        ending = true;
+                        continue;
+                    }
+                    if (write(text)) unflushed++;
+                    if (policy == FlushPolicy.EVERY_EVENT ||
+                            (policy == FlushPolicy.BATCH && unflushed >= flushEvery)) {
+                        flush();
+                        unflushed = 0;
+                        lastFlush = System.currentTimeMillis();
+                    }
+                }
+                group.clear();
+            }
+
+            if (ending || (unflushed > 0 && System.currentTimeMillis() - lastFlush >= flushEvery &&
+                    policy == FlushPolicy.INTERVAL)) {
+                flush();
+                unflushed = 0;
+                lastFlush = System.currentTimeMillis();
+            }
+
+            if (ending) {
+                closeFile();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Writes a single line to the open file, (re)opening the file if necessary.
+     *
+     * @param text The line to write.
+     * @return Returns whether the line was written.
+     */
+    private boolean write(String text) {
+        try {
+            if (fileWriter == null) fileWriter = new BufferedWriter(new FileWriter(file, true));
+            fileWriter.write(text + System.lineSeparator());
+            if (listener != null) listener.accept(text);
+            return true;
+        } catch (IOException e) {
+            closeFile();
+            return false;
+        }
+    }
+
+    /**
+     * Flushes any buffered lines to the file.
+     */
+    private void flush() {
+        try {
+            if (fileWriter != null) fileWriter.flush();
+        } catch (IOException e) {
+            closeFile();
+        }
+    }
+
+    /**
+     * Closes the file, ignoring errors. The file is reopened on the next write.
+     */
+    private void closeFile() {
+        try {
+            if (fileWriter != null) fileWriter.close();
+        } catch (IOException ignored) {
+        }
+        fileWriter = null;
+    }
+}
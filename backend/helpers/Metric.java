@@ -0,0 +1,12 @@
+package backend.helpers;
+
+/**
+ * The statistics that the DataManager can compute over a date range. Any set of them is computed together in a
+ * single pass over the range.
+ */
+public enum Metric {
+    CONSUMPTION,        // how often each menu item was ordered
+    HOURLY_CUSTOMERS,   // customers seated in each hour, per day of week
+    WEEKDAY_CUSTOMERS,  // customers seated on each day of week
+    WEEKDAY_SALES       // value of delivered orders on each day of week
+}
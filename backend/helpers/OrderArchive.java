@@ -0,0 +1,287 @@
+package backend.helpers;
+
+import backend.Money;
+import backend.foods.MenuIngredient;
+import backend.foods.Order;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The OrderArchive is a Singleton class that keeps orders which have been delivered and billed, so they no longer
+ * have to live in the OrderManager. Orders are appended to orders.archive as compact records holding what a bill
+ * needs: the id, name, prices, notes and extra ingredients of the order. The ids of archived orders are kept in a
+ * bit set, so archiving an order twice has no effect.
+ */
+public class OrderArchive {
+
+    // Constants
+    private static final File archiveFile = new File("orders.archive");
+
+    // Singleton instance
+    private static OrderArchive instance;
+
+    // Instance variables
+    private final BitSet archived = new BitSet();
+    private DataOutputStream output;
+
+    /**
+     * Returns the OrderArchive instance, reading the ids of the archived orders on first use.
+     *
+     * @return The OrderArchive.
+     */
+    public static synchronized OrderArchive getInstance() {
+        if (instance == null) instance = new OrderArchive();
+        return instance;
+    }
+
+    /**
+     * Reads the ids of every archived order, dropping a record cut off by a crash.
+     */
+    private OrderArchive() {
+        long valid = 0;
+        if (archiveFile.exists()) {
+            try (CountingInput input = new CountingInput(new FileInputStream(archiveFile))) {
+                while (true) {
+                    Record record = Record.read(input);
+                    archived.set(record.id);
+                    valid = input.count;
+                }
+            } catch (IOException ignored) {
+            }
+        }
+
+        try (RandomAccessFile truncate = new RandomAccessFile(archiveFile, "rw")) {
+            if (truncate.length() > valid) truncate.setLength(valid);
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * An archived order.
+     */
+    public static class Record {
+
+        private int id;
+        private long archivedAt;
+        private String name, notes;
+        private double menuItemPrice, price;
+        private List<String> extras = new ArrayList<>();
+        private List<Double> extraCosts = new ArrayList<>();
+
+        /**
+         * Getter for id.
+         *
+         * @return Returns the id of the order.
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Getter for archivedAt.
+         *
+         * @return Returns when the order was archived, in milliseconds since the epoch.
+         */
+        public long getArchivedAt() {
+            return archivedAt;
+        }
+
+        /**
+         * Getter for name.
+         *
+         * @return Returns the name of the menu item ordered.
+         */
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Getter for notes.
+         *
+         * @return Returns the notes of the order.
+         */
+        public String getNotes() {
+            return notes;
+        }
+
+        /**
+         * Getter for menuItemPrice.
+         *
+         * @return Returns the price of the menu item.
+         */
+        public double getMenuItemPrice() {
+            return menuItemPrice;
+        }
+
+        /**
+         * Getter for price.
+         *
+         * @return Returns the total price of the order, with extra ingredients.
+         */
+        public double getPrice() {
+            return price;
+        }
+
+        /**
+         * Getter for extras.
+         *
+         * @return Returns the names of the extra ingredients that were charged.
+         */
+        public List<String> getExtras() {
+            return extras;
+        }
+
+        /**
+         * Getter for extraCosts.
+         *
+         * @return Returns the cost of each extra ingredient, in the same order as getExtras.
+         */
+        public List<Double> getExtraCosts() {
+            return extraCosts;
+        }
+
+        /**
+         * Writes an order as a record.
+         *
+         * @param order  The order.
+         * @param output The stream to write to.
+         * @throws IOException If writing fails.
+         */
+        private static void write(Order order, DataOutputStream output) throws IOException {
+            List<MenuIngredient> ingredients = order.getIngredients();
+            List<Integer> extras = new ArrayList<>();
+            for (int i = 0; i < ingredients.size(); i++) if (order.getExtraCents(i) != 0) extras.add(i);
+
+            output.writeInt(order.getId());
+            output.writeLong(System.currentTimeMillis());
+            output.writeUTF(order.getName());
+            output.writeUTF(order.getNotes());
+            output.writeDouble(order.getMenuItemPrice());
+            output.writeDouble(order.getPrice());
+            output.writeShort(extras.size());
+            for (int i : extras) {
+                output.writeUTF(ingredients.get(i).toString());
+                output.writeDouble(Money.toDollars(order.getExtraCents(i)));
+            }
+        }
+
+        /**
+         * Reads a record.
+         *
+         * @param input The stream to read from.
+         * @return Returns the record.
+         * @throws IOException If reading fails, or the stream ends (EOFException).
+         */
+        private static Record read(DataInput input) throws IOException {
+            Record record = new Record();
+            record.id = input.readInt();
+            record.archivedAt = input.readLong();
+            record.name = input.readUTF();
+            record.notes = input.readUTF();
+            record.menuItemPrice = input.readDouble();
+            record.price = input.readDouble();
+            int extras = input.readShort();
+            for (int i = 0; i < extras; i++) {
+                record.extras.add(input.readUTF());
+                record.extraCosts.add(input.readDouble());
+            }
+            return record;
+        }
+    }
+
+    /**
+     * Archives orders that have not been archived yet, in a single write.
+     *
+     * @param orders The orders to archive.
+     * @return Returns the orders that were archived by this call.
+     */
+    public synchronized List<Order> archive(Collection<Order> orders) {
+        List<Order> added = new ArrayList<>();
+        try {
+            if (output == null)
+                output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(archiveFile, true)));
+            for (Order order : orders) {
+                if (order.getId() < 0 || archived.get(order.getId())) continue;
+                Record.write(order, output);
+                added.add(order);
+            }
+            output.flush();
+        } catch (IOException e) {
+            return new ArrayList<>();
+        }
+        for (Order order : added) archived.set(order.getId());
+        return added;
+    }
+
+    /**
+     * Returns whether an order has been archived.
+     *
+     * @param id The id of the order.
+     * @return Returns whether the order is in the archive.
+     */
+    public synchronized boolean contains(int id) {
+        return id >= 0 && archived.get(id);
+    }
+
+    /**
+     * Gets the number of archived orders.
+     *
+     * @return Returns the number of orders in the archive.
+     */
+    public synchronized int size() {
+        return archived.cardinality();
+    }
+
+    /**
+     * Passes every archived order to the consumer, oldest first.
+     *
+     * @param consumer The consumer receiving each record.
+     */
+    public synchronized void forEach(Consumer<Record> consumer) {
+        try {
+            if (output != null) output.flush();
+            try (DataInputStream input = new DataInputStream(new BufferedInputStream(
+                    new FileInputStream(archiveFile)))) {
+                while (true) consumer.accept(Record.read(input));
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    /**
+     * A data input stream that counts the bytes read, to find the end of the last complete record.
+     */
+    private static class CountingInput extends DataInputStream {
+
+        private long count;
+
+        /**
+         * Constructs a counting stream.
+         *
+         * @param input The stream to read from.
+         */
+        private CountingInput(InputStream input) {
+            super(new BufferedInputStream(input));
+            this.in = new FilterInputStream(this.in) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b >= 0) count++;
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int n = super.read(b, off, len);
+                    if (n > 0) count += n;
+                    return n;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package backend.helpers;
+
+import backend.Money;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * The ParallelLogParser builds day rollups from a large part of a log file. The file is memory-mapped and split
+ * into chunks on line boundaries, the chunks are parsed in parallel on a ForkJoinPool, and the partial rollups of
+ * the chunks are merged at the end. Lines are tokenized by hand straight from the mapped bytes, without regular
+ * expressions or date formatters.
+ */
+public class ParallelLogParser {
+
+    // Constants
+    private static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int MAX_FIELDS = 16;
+    private static final byte[] ORDER_PLACED = "ORDER PLACED".getBytes();
+    private static final byte[] ORDER_DELIVERED = "ORDER DELIVERED".getBytes();
+    private static final byte[] CUSTOMERS_SEATED = "CUSTOMERS SEATED".getBytes();
+    private static final byte[] ORDERED_ITEM = "Ordered Item: ".getBytes();
+    private static final byte[] ORDER_PRICE = "Order Price: ".getBytes();
+    private static final byte[] NUMBER_OF_CUSTOMERS = "Number of Customers: ".getBytes();
+
+    // Instance variables
+    private final File file;
+    private final long start;
+    private long end;
+    private long events;
+
+    /**
+     * Constructs a parser for the part of a log file from the given offset to its last complete line.
+     *
+     * @param file  The log file to parse.
+     * @param start The byte offset to start from (must be the start of a line).
+     */
+    public ParallelLogParser(File file, long start) {
+        this.file = file;
+        this.start = start;
+        this.end = start;
+    }
+
+    /**
+     * Parses the file and returns the rollups of every day found in it.
+     *
+     * @return Returns a map of days to their rollups.
+     * @throws IOException If the file cannot be read.
+     */
+    public TreeMap<LocalDate, DayRollup> parse() throws IOException {
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            FileChannel channel = input.getChannel();
+            List<Long> boundaries = split(channel);
+            end = boundaries.get(boundaries.size() - 1);
+            if (boundaries.size() < 2) return new TreeMap<>();
+
+            Partial result = ForkJoinPool.commonPool().invoke(new ChunkTask(channel, boundaries, 0,
+                    boundaries.size() - 1));
+            events = result.events;
+            return result.days;
+        }
+    }
+
+    /**
+     * Getter for end.
+     *
+     * @return Returns the byte offset just past the last complete line parsed.
+     */
+    public long getEnd() {
+        return end;
+    }
+
+    /**
+     * Getter for events.
+     *
+     * @return Returns the number of valid events parsed.
+     */
+    public long getEvents() {
+        return events;
+    }
+
+    /**
+     * Splits the file into chunks of about CHUNK_SIZE bytes that each end just after a line separator.
+     *
+     * @param channel The channel of the file.
+     * @return Returns the offsets of the chunk boundaries, starting with the start offset.
+     * @throws IOException If the file cannot be read.
+     */
+    private List<Long> split(FileChannel channel) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(start);
+        long size = channel.size();
+        long lastLineEnd = findLineEnd(channel, Math.max(start, size - 1), size, true);
+
+        long position = start;
+        while (position < lastLineEnd) {
+            long next = Math.min(position + CHUNK_SIZE, lastLineEnd);
+            if (next < lastLineEnd) next = findLineEnd(channel, next, lastLineEnd, false);
+            boundaries.add(next);
+            position = next;
+        }
+        return boundaries;
+    }
+
+    /**
+     * Finds the offset just past a line separator, searching forward (or backward) from a position.
+     *
+     * @param channel  The channel of the file.
+     * @param position The position to search from.
+     * @param limit    The offset not to search past.
+     * @param backward Whether to search backward, for the last complete line.
+     * @return Returns the offset just past the separator found, or the limit (start when searching backward).
+     * @throws IOException If the file cannot be read.
+     */
+    private long findLineEnd(FileChannel channel, long position, long limit, boolean backward) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8192);
+        while (backward ? position >= start : position < limit) {
+            long from = backward ? Math.max(start, position - buffer.capacity() + 1) : position;
+            buffer.clear();
+            buffer.limit((int) Math.min(buffer.capacity(), backward ? position - from + 1 : limit - from));
+            int read = channel.read(buffer, from);
+            if (read <= 0) break;
+
+            if (backward) {
+                for (int i = read - 1; i >= 0; i--) if (buffer.get(i) == '\n') return from + i + 1;
+                position = from - 1;
+            } else {
+                for (int i = 0; i < read; i++) if (buffer.get(i) == '\n') return from + i + 1;
+                position = from + read;
+            }
+        }
+        return backward ? start : limit;
+    }
+
+    /**
+     * The partial result of parsing one or more chunks.
+     */
+    private static class Partial {
+        private TreeMap<LocalDate, DayRollup> days = new TreeMap<>();
+        private long events;
+
+        /**
+         * Merges another partial result into this one.
+         *
+         * @param other The partial result to merge.
+         * @return Returns this partial result.
+         */
+        private Partial merge(Partial other) {
+            for (Map.Entry<LocalDate, DayRollup> entry : other.days.entrySet()) {
+                DayRollup day = days.get(entry.getKey());
+                if (day == null) days.put(entry.getKey(), entry.getValue());
+                else day.merge(entry.getValue());
+            }
+            events += other.events;
+            return this;
+        }
+    }
+
+    /**
+     * A task parsing a range of chunks, splitting it in half until a single chunk is left.
+     */
+    private static class ChunkTask extends RecursiveTask<Partial> {
+
+        private static final long serialVersionUID = 1L;
+        private final FileChannel channel;
+        private final List<Long> boundaries;
+        private final int from, to;
+
+        /**
+         * Constructs a task for the chunks [from, to).
+         *
+         * @param channel    The channel of the file.
+         * @param boundaries The offsets of the chunk boundaries.
+         * @param from       The index of the first chunk.
+         * @param to         The index after the last chunk.
+         */
+        private ChunkTask(FileChannel channel, List<Long> boundaries, int from, int to) {
+            this.channel = channel;
+            this.boundaries = boundaries;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Parses a single chunk, or forks the two halves of the range and merges their results.
+         *
+         * @return Returns the partial result of the range.
+         */
+        @Override
+        protected Partial compute() {
+            if (to - from > 1) {
+                int middle = (from + to) / 2;
+                ChunkTask left = new ChunkTask(channel, boundaries, from, middle);
+                left.fork();
+                Partial right = new ChunkTask(channel, boundaries, middle, to).compute();
+                return left.join().merge(right);
+            }
+
+            try {
+                long offset = boundaries.get(from);
+                ByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, offset,
+                        boundaries.get(to) - offset);
+                return new ChunkParser(chunk).parse();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not map the log file.", e);
+            }
+        }
+    }
+
+    /**
+     * Tokenizes the lines of a single mapped chunk and adds them to a partial result.
+     */
+    private static class ChunkParser {
+
+        private final ByteBuffer chunk;
+        private final Partial partial = new Partial();
+        private final int[] fieldStarts = new int[MAX_FIELDS];
+        private final int[] fieldEnds = new int[MAX_FIELDS];
+        private final Charset charset = Charset.defaultCharset();
+        private byte[] text = new byte[256];
+        private int fields;
+
+        // The day of the previous line, reused while lines stay on the same day
+        private int lastYear, lastMonth, lastDay;
+        private LocalDate lastDate;
+
+        /**
+         * Constructs a parser for a chunk.
+         *
+         * @param chunk The mapped bytes of the chunk, made of complete lines.
+         */
+        private ChunkParser(ByteBuffer chunk) {
+            this.chunk = chunk;
+        }
+
+        /**
+         * Parses every line of the chunk.
+         *
+         * @return Returns the partial result of the chunk.
+         */
+        private Partial parse() {
+            int limit = chunk.limit();
+            int lineStart = 0;
+            while (lineStart < limit) {
+                int lineEnd = lineStart;
+                while (lineEnd < limit && chunk.get(lineEnd) != '\n') lineEnd++;
+                int end = lineEnd > lineStart && chunk.get(lineEnd - 1) == '\r' ? lineEnd - 1 : lineEnd;
+                parseLine(lineStart, end);
+                lineStart = lineEnd + 1;
+            }
+            return partial;
+        }
+
+        /**
+         * Parses a single line, given by its byte range in the chunk.
+         *
+         * @param from The offset of the first byte of the line.
+         * @param to   The offset after the last byte of the line.
+         */
+        private void parseLine(int from, int to) {
+            tokenize(from, to);
+            if (fields < 3) return;
+
+            LocalDate date = parseDate(fieldStarts[0], fieldEnds[0]);
+            int hour = parseHour(fieldStarts[1], fieldEnds[1]);
+            if (date == null || hour < 0) return;
+            partial.events++;
+
+            try {
+                if (fieldEquals(2, ORDER_PLACED) && fields > 5) {
+                    day(date).addConsumption(parseString(5, ORDERED_ITEM));
+                } else if (fieldEquals(2, ORDER_DELIVERED) && fields > 6) {
+                    day(date).addSale(parseCents(6, ORDER_PRICE));
+                } else if (fieldEquals(2, CUSTOMERS_SEATED) && fields > 3 && hour < DayRollup.HOURS) {
+                    day(date).addCustomers(hour, (int) parseLong(3, NUMBER_OF_CUSTOMERS));
+                }
+            } catch (NumberFormatException ignored) {
+            }
+        }
+
+        /**
+         * Splits a line on '|' into trimmed fields, recording their byte ranges.
+         *
+         * @param from The offset of the first byte of the line.
+         * @param to   The offset after the last byte of the line.
+         */
+        private void tokenize(int from, int to) {
+            fields = 0;
+            int fieldStart = from;
+            for (int i = from; i <= to && fields < MAX_FIELDS; i++) {
+                if (i == to || chunk.get(i) == '|') {
+                    int s = fieldStart, e = i;
+                    while (s < e && chunk.get(s) == ' ') s++;
+                    while (e > s && chunk.get(e - 1) == ' ') e--;
+                    fieldStarts[fields] = s;
+                    fieldEnds[fields] = e;
+                    fields++;
+                    fieldStart = i + 1;
+                }
+            }
+        }
+
+        /**
+         * Parses a date of the form yyyy/MM/dd.
+         *
+         * @param from The offset of the first byte of the date.
+         * @param to   The offset after the last byte of the date.
+         * @return Returns the parsed date, or null if it is not a valid date.
+         */
+        private LocalDate parseDate(int from, int to) {
+            if (to - from != 10 || chunk.get(from + 4) != '/' || chunk.get(from + 7) != '/') return null;
+            int year = digits(from, 4), month = digits(from + 5, 2), day = digits(from + 8, 2);
+            if (year < 0 || month < 0 || day < 0) return null;
+
+            if (lastDate == null || year != lastYear || month != lastMonth || day != lastDay) {
+                try {
+                    lastDate = LocalDate.of(year, month, day);
+                } catch (DateTimeException e) {
+                    return null;
+                }
+                lastYear = year;
+                lastMonth = month;
+                lastDay = day;
+            }
+            return lastDate;
+        }
+
+        /**
+         * Parses the hour out of a time of the form HH:mm:ss.
+         *
+         * @param from The offset of the first byte of the time.
+         * @param to   The offset after the last byte of the time.
+         * @return Returns the hour, or -1 if it is not a valid time.
+         */
+        private int parseHour(int from, int to) {
+            if (to - from != 8 || chunk.get(from + 2) != ':' || chunk.get(from + 5) != ':') return -1;
+            if (digits(from + 3, 2) < 0 || digits(from + 6, 2) < 0) return -1;
+            return digits(from, 2);
+        }
+
+        /**
+         * Parses a fixed number of decimal digits.
+         *
+         * @param from  The offset of the first digit.
+         * @param count The number of digits.
+         * @return Returns the parsed number, or -1 if a byte is not a digit.
+         */
+        private int digits(int from, int count) {
+            int value = 0;
+            for (int i = from; i < from + count; i++) {
+                int digit = chunk.get(i) - '0';
+                if (digit < 0 || digit > 9) return -1;
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        /**
+         * Checks whether a field holds exactly the given bytes.
+         *
+         * @param field    The index of the field.
+         * @param expected The expected bytes.
+         * @return Returns whether the field matches.
+         */
+        private boolean fieldEquals(int field, byte[] expected) {
+            if (fieldEnds[field] - fieldStarts[field] != expected.length) return false;
+            for (int i = 0; i < expected.length; i++) {
+                if (chunk.get(fieldStarts[field] + i) != expected[i]) return false;
+            }
+            return true;
+        }
+
+        /**
+         * Gets the offset of the value of a field, after its label (if the field starts with it).
+         *
+         * @param field The index of the field.
+         * @param label The label in front of the value.
+         * @return Returns the offset of the first byte of the value.
+         */
+        private int valueStart(int field, byte[] label) {
+            int from = fieldStarts[field];
+            if (fieldEnds[field] - from < label.length) return from;
+            for (int i = 0; i < label.length; i++) {
+                if (chunk.get(from + i) != label[i]) return from;
+            }
+            from += label.length;
+            while (from < fieldEnds[field] && chunk.get(from) == ' ') from++;
+            return from;
+        }
+
+        /**
+         * Parses the value of a field as a whole number.
+         *
+         * @param field The index of the field.
+         * @param label The label in front of the value.
+         * @return Returns the parsed number.
+         */
+        private long parseLong(int field, byte[] label) {
+            int from = valueStart(field, label), to = fieldEnds[field];
+            if (from == to) throw new NumberFormatException("Empty number");
+            long value = 0;
+            for (int i = from; i < to; i++) {
+                int digit = chunk.get(i) - '0';
+                if (digit < 0 || digit > 9) throw new NumberFormatException("Not a whole number");
+                value = value * 10 + digit;
+            }
+            return value;
+        }
+
+        /**
+         * Parses the value of a field as an amount of money in cents, rounding half a cent up. Plain numbers like
+         * 12.5 are parsed by hand, anything else (like 1.0E7) falls back to Double.parseDouble.
+         *
+         * @param field The index of the field.
+         * @param label The label in front of the value.
+         * @return Returns the parsed amount in cents.
+         */
+        private long parseCents(int field, byte[] label) {
+            int from = valueStart(field, label), to = fieldEnds[field];
+            boolean negative = from < to && chunk.get(from) == '-';
+            long cents = 0;
+            int decimals = 0;
+            boolean point = false, roundUp = false, plain = to > (negative ? from + 1 : from);
+            for (int i = negative ? from + 1 : from; i < to && plain; i++) {
+                byte b = chunk.get(i);
+                if (b == '.' && !point) point = true;
+                else if (b >= '0' && b <= '9' && cents < 10000000000000000L) {
+                    if (!point || decimals < 2) {
+                        cents = cents * 10 + (b - '0');
+                        if (point) decimals++;
+                    } else if (decimals++ == 2) roundUp = b >= '5';
+                } else plain = false;
+            }
+            if (!plain) return Money.toCents(Double.parseDouble(parseString(field, label)));
+
+            for (; decimals < 2; decimals++) cents *= 10;
+            if (roundUp) cents++;
+            return negative ? -cents : cents;
+        }
+
+        /**
+         * Decodes the value of a field as a string.
+         *
+         * @param field The index of the field.
+         * @param label The label in front of the value.
+         * @return Returns the decoded value.
+         */
+        private String parseString(int field, byte[] label) {
+            int from = valueStart(field, label), length = fieldEnds[field] - from;
+            if (text.length < length) text = new byte[length];
+            for (int i = 0; i < length; i++) text[i] = chunk.get(from + i);
+            return new String(text, 0, length, charset);
+        }
+
+        /**
+         * Gets the rollup for a day, creating it if necessary.
+         *
+         * @param date The day to get the rollup of.
+         * @return Returns the rollup of that day.
+         */
+        private DayRollup day(LocalDate date) {
+            return partial.days.computeIfAbsent(date, d -> new DayRollup());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package backend.helpers;
+
+import backend.foods.Ingredient;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ReorderAggregator is a Singleton class that collects the ingredients falling below their threshold and turns
+ * them into reorder requests once per time window. However many orders cross an ingredient's threshold within a
+ * window, it is requested once, for the gap between its target stock level and its stock at the end of the window,
+ * less whatever is already requested. Every request of a window is written to requests.txt in a single write.
+ */
+public class ReorderAggregator {
+
+    // Constants
+    private static final long DEFAULT_WINDOW = 60 * 1000;   // milliseconds
+
+    // Singleton instance
+    private static ReorderAggregator instance = new ReorderAggregator();
+
+    // Instance variables
+    private final LinkedHashMap<Ingredient, Double> pending = new LinkedHashMap<>();    // ingredient to last stock
+    private final ScheduledExecutorService scheduler;
+    private ScheduledFuture<?> scheduled;
+    private long window = DEFAULT_WINDOW;
+
+    /**
+     * Returns the ReorderAggregator instance
+     *
+     * @return The ReorderAggregator
+     */
+    public static ReorderAggregator getInstance() {
+        return instance;
+    }
+
+    /**
+     * Starts the timer thread and makes sure pending requests are written when the application shuts down.
+     */
+    private ReorderAggregator() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "reorder-aggregator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush));
+    }
+
+    /**
+     * Sets the length of the window crossings are collected over.
+     *
+     * @param window Milliseconds per window, or 0 to request every crossing immediately.
+     */
+    public synchronized void setWindow(long window) {
+        this.window = window;
+    }
+
+    /**
+     * Records that an ingredient is at or below its threshold. The first crossing of a window starts its timer.
+     *
+     * @param ingredient The ingredient.
+     * @param quantity   Its stock after the change that crossed the threshold.
+     */
+    public synchronized void crossed(Ingredient ingredient, double quantity) {
+        pending.put(ingredient, quantity);
+        if (window <= 0) flush();
+        else if (scheduled == null) scheduled = scheduler.schedule(this::flush, window, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Requests every pending ingredient now, ending the current window.
+     *
+     * @return Returns whether the requests were written successfully.
+     */
+    public synchronized boolean flush() {
+        if (scheduled != null) scheduled.cancel(false);
+        scheduled = null;
+        if (pending.isEmpty()) return true;
+
+        RequestsManager requests = RequestsManager.getInstance();
+        LinkedHashMap<String, Double> quantities = new LinkedHashMap<>();
+        for (Map.Entry<Ingredient, Double> entry : pending.entrySet()) {
+            Ingredient ingredient = entry.getKey();
+            double requested = Math.max(requests.getRequestedQuantity(ingredient.getName()), 0);
+            double gap = ingredient.getTarget() - entry.getValue() - requested;
+            if (gap > 0) quantities.put(ingredient.getName(), gap);
+        }
+        pending.clear();
+        return quantities.isEmpty() || requests.addIngredients(quantities);
+    }
+}
@@ -1,18 +1,35 @@
 package backend.helpers;
 
 import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * RequestsManager manages all necessary changes to the requests.txt file.
+ * <p>
+ * The requested quantities are kept in memory, so a change does not touch requests.txt. Instead, every change is
+ * appended to a journal as the new quantity of the ingredient, which makes replaying it safe no matter how often it
+ * is replayed. Every so often (and on startup and shutdown) the journal is compacted: requests.txt is rewritten from
+ * memory in one go and the journal is emptied.
  */
 public class RequestsManager {
 
     // Constants
     private static final File requestsFile = new File("requests.txt");
+    private static final File journalFile = new File("requests.journal");
+    private static final File tempFile = new File("requests.temp.txt");
+    private static final int COMPACT_EVERY = 256;   // journal entries between compactions
 
     // Singleton instance
     private static RequestsManager instance = new RequestsManager();
 
+    // Instance variables
+    private final LinkedHashMap<String, Request> requests = new LinkedHashMap<>();  // lower case name to request
+    private BufferedWriter journal;
+    private int journalEntries;
+
     /**
      * Returns the RequestManager instance
      *
@@ -23,13 +40,36 @@ public class RequestsManager {
     }
 
     /**
-     * Creates the requests.txt file.
+     * Loads requests.txt and replays the journal on top of it, then compacts both.
      */
     private RequestsManager() {
         try {
             requestsFile.createNewFile();
+            load(requestsFile, false);
+            if (journalFile.exists()) load(journalFile, true);
         } catch (IOException ignored) {
         }
+        compact();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close));
+    }
+
+    /**
+     * A requested ingredient with the name it was requested under.
+     */
+    private static class Request {
+        private final String name;
+        private final double quantity;
+
+        /**
+         * Constructs a request.
+         *
+         * @param name     The name of the ingredient, as it was requested.
+         * @param quantity The requested quantity.
+         */
+        private Request(String name, double quantity) {
+            this.name = name;
+            this.quantity = quantity;
+        }
     }
 
     /**
@@ -38,22 +78,9 @@ public class RequestsManager {
      * @param ingredientName The name of the ingredient to search for.
      * @return The requested quantity of ingredient in requests.txt.
      */
-    private double getRequestedQuantity(String ingredientName) {
-        try {
-            BufferedReader fileReader = new BufferedReader(new FileReader(requestsFile));
-            String line;
-            while ((line = fileReader.readLine()) != null) {
-                String[] parts = line.split("\\|", 2);
-                if (parts[0].trim().toLowerCase().equals(ingredientName.toLowerCase())) {
-                    fileReader.close();
-                    return Double.parseDouble(parts[1]);
-                }
-            }
-            fileReader.close();
-
-        } catch (IOException ignored) {
-        }
-        return -1;
+    public synchronized double getRequestedQuantity(String ingredientName) {
+        Request request = requests.get(ingredientName.toLowerCase());
+        return request != null ? request.quantity : -1;
     }
 
     /**
@@ -61,8 +88,9 @@ public class RequestsManager {
      *
      * @param ingredientName String name of ingredient to be removed
      */
-    public boolean removeIngredient(String ingredientName) {
-        return changeIngredientQuantity(ingredientName, -getRequestedQuantity(ingredientName));
+    public synchronized boolean removeIngredient(String ingredientName) {
+        double quantity = getRequestedQuantity(ingredientName);
+        return quantity < 0 || changeIngredientQuantity(ingredientName, -quantity);
     }
 
     /**
@@ -71,7 +99,7 @@ public class RequestsManager {
      * @param ingredientName Name of the ingredient to modify.
      * @param quantity       Quantity to be deducted.
      */
-    public boolean removeIngredient(String ingredientName, double quantity) {
+    public synchronized boolean removeIngredient(String ingredientName, double quantity) {
         return changeIngredientQuantity(ingredientName, -quantity);
     }
 
@@ -81,43 +109,139 @@ public class RequestsManager {
      * @param ingredientName Name of the ingredient to modify.
      * @param quantity       Quantity to be incremented.
      */
-    public boolean addIngredient(String ingredientName, double quantity) {
+    public synchronized boolean addIngredient(String ingredientName, double quantity) {
         return changeIngredientQuantity(ingredientName, quantity);
     }
 
     /**
-     * Helper method to modify an ingredient's requested quantity by adding supplied quantity.
+     * Increase the requested quantities of several ingredients at once, with a single write to the journal.
+     *
+     * @param quantities Map of ingredient names to the quantities to be incremented.
+     */
+    public synchronized boolean addIngredients(Map<String, Double> quantities) {
+        try {
+            for (Map.Entry<String, Double> entry : quantities.entrySet()) journal(entry.getKey(), entry.getValue());
+            journal.flush();
+        } catch (IOException e) {
+            return false;
+        }
+        return journalEntries < COMPACT_EVERY || compact();
+    }
+
+    /**
+     * Compacts the journal into requests.txt and closes it. Called when the application shuts down.
+     */
+    public synchronized void close() {
+        compact();
+        try {
+            if (journal != null) journal.close();
+        } catch (IOException ignored) {
+        }
+        journal = null;
+    }
+
+    /**
+     * Helper method to modify an ingredient's requested quantity by adding supplied quantity. The new quantity is
+     * journaled before the call returns.
      *
      * @param ingredientName Name of the ingredient whose quantity we want to modify
      * @param quantity       Amount of ingredient to be requested.
      */
     private boolean changeIngredientQuantity(String ingredientName, double quantity) {
-        File alternativeFile = new File("requests.temp.txt"); // Create temp file
         try {
-            BufferedReader fileReader = new BufferedReader(new FileReader(requestsFile));
-            BufferedWriter fileWriter = new BufferedWriter(new FileWriter(alternativeFile));
+            journal(ingredientName, quantity);
+            journal.flush();
+        } catch (IOException e) {
+            return false;
+        }
+        return journalEntries < COMPACT_EVERY || compact();
+    }
 
-            String line;
-            double ingredientQuantity = 0;
-            while ((line = fileReader.readLine()) != null) {
-                String[] parts = line.split("\\|", 2);
+    /**
+     * Changes an ingredient's requested quantity in memory and appends its new quantity to the journal, without
+     * flushing it.
+     *
+     * @param ingredientName Name of the ingredient whose quantity we want to modify
+     * @param quantity       Amount of ingredient to be requested.
+     * @throws IOException If the journal cannot be written.
+     */
+    private void journal(String ingredientName, double quantity) throws IOException {
+        Request old = requests.get(ingredientName.toLowerCase());
+        double newQuantity = (old != null ? old.quantity : 0) + quantity;
+        set(ingredientName, newQuantity);
+
+        if (journal == null) journal = new BufferedWriter(new FileWriter(journalFile, true));
+        journal.write(ingredientName + " | " + Math.max(newQuantity, 0) + System.lineSeparator());
+        journalEntries++;
+    }
 
-                if (parts[0].trim().toLowerCase().equals(ingredientName.toLowerCase()))
-                    ingredientQuantity = Double.parseDouble(parts[1]);
-                else fileWriter.write(line + System.lineSeparator());
+    /**
+     * Sets the requested quantity of an ingredient in memory, moving it to the end like a rewrite of the file
+     * would. A quantity of zero or less removes the request.
+     *
+     * @param ingredientName The name of the ingredient.
+     * @param quantity       The new requested quantity.
+     */
+    private void set(String ingredientName, double quantity) {
+        String key = ingredientName.toLowerCase();
+        requests.remove(key);
+        if (quantity > 0) requests.put(key, new Request(ingredientName, quantity));
+    }
+
+    /**
+     * Reads "name | quantity" lines into memory. Each line replaces the quantity of its ingredient.
+     *
+     * @param file    The file to read.
+     * @param journal Whether the file is the journal, whose last line is ignored if it was cut off by a crash.
+     * @throws IOException If reading fails.
+     */
+    private void load(File file, boolean journal) throws IOException {
+        boolean complete = true;
+        if (journal && file.length() > 0) {
+            try (RandomAccessFile access = new RandomAccessFile(file, "r")) {
+                access.seek(file.length() - 1);
+                complete = access.read() == '\n';
             }
+        }
+
+        try (BufferedReader fileReader = new BufferedReader(new FileReader(file))) {
+            String line = fileReader.readLine();
+            while (line != null) {
+                String next = fileReader.readLine();
+                if (next != null || complete) {
+                    String[] parts = line.split("\\|", 2);
+                    try {
+                        if (parts.length == 2) set(parts[0].trim(), Double.parseDouble(parts[1]));
+                    } catch (NumberFormatException ignored) {
+                    }
+                }
+                line = next;
+            }
+        }
+    }
 
-            // Calculate and write new quantity
-            double newQuantity = ingredientQuantity + quantity;
-            if (newQuantity > 0) fileWriter.write(ingredientName + " | " + newQuantity + System.lineSeparator());
+    /**
+     * Rewrites requests.txt from memory through a temporary file, then empties the journal. If the application stops
+     * in between, the journal is simply replayed again on top of the new requests.txt.
+     *
+     * @return Returns whether requests.txt was written successfully.
+     */
+    private boolean compact() {
+        try {
+            try (BufferedWriter fileWriter = new BufferedWriter(new FileWriter(tempFile))) {
+                for (Request request : requests.values()) {
+                    fileWriter.write(request.name + " | " + request.quantity + System.lineSeparator());
+                }
+            }
+            Files.move(tempFile.toPath(), requestsFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
 
-            // Close files and rename temp file to requests.txt
-            fileReader.close();
-            fileWriter.close();
-            return requestsFile.delete() && alternativeFile.renameTo(requestsFile);
+            if (journal != null) journal.close();
+            journal = new BufferedWriter(new FileWriter(journalFile, false));
+            journalEntries = 0;
+            return true;
         } catch (IOException e) {
             return false;
         }
     }
 }
-
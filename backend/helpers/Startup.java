@@ -0,0 +1,121 @@
+package backend.helpers;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * The Startup is a Singleton class that loads the restaurant's history in the background, so that the application
+ * only has to load the restaurant itself (employees, tables, menu, inventory and orders in progress) before showing
+ * the Home screen. Each stage of the history is loaded on its own worker thread, and screens that need a stage can
+ * check whether it is ready, wait for it, or be told once it is.
+ * <p>
+ * Using a stage's classes before it is ready is safe: it simply waits for the stage to finish loading.
+ */
+public class Startup {
+
+    /**
+     * The stages of history loaded in the background.
+     */
+    public enum Stage {
+        ARCHIVE,    // the ids of archived orders (OrderArchive)
+        HISTORY,    // the event log, its partitions and the analytics index (LogManager, AnalyticsIndex)
+        REQUESTS    // the ingredient requests and their journal (RequestsManager)
+    }
+
+    // Singleton instance
+    private static Startup instance = new Startup();
+
+    // Instance variables
+    private final Map<Stage, CompletableFuture<Void>> stages = new EnumMap<>(Stage.class);
+    private ExecutorService workers;
+
+    /**
+     * Returns the Startup instance.
+     *
+     * @return The Startup.
+     */
+    public static Startup getInstance() {
+        return instance;
+    }
+
+    /**
+     * Constructs the startup with every stage not yet started.
+     */
+    private Startup() {
+        for (Stage stage : Stage.values()) stages.put(stage, new CompletableFuture<>());
+    }
+
+    /**
+     * Starts loading every stage in the background. Does nothing if loading has already started.
+     */
+    public synchronized void begin() {
+        if (workers != null) return;
+        workers = Executors.newFixedThreadPool(Stage.values().length, runnable -> {
+            Thread thread = new Thread(runnable, "startup");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        load(Stage.ARCHIVE, OrderArchive::getInstance);
+        load(Stage.HISTORY, LogManager::getInstance);
+        load(Stage.REQUESTS, RequestsManager::getInstance);
+        workers.shutdown();
+    }
+
+    /**
+     * Loads a stage on a worker thread, marking it ready once done, even if loading failed.
+     *
+     * @param stage  The stage.
+     * @param loader Loads the stage.
+     */
+    private void load(Stage stage, Runnable loader) {
+        workers.execute(() -> {
+            try {
+                loader.run();
+            } finally {
+                stages.get(stage).complete(null);
+            }
+        });
+    }
+
+    /**
+     * Returns whether a stage has been loaded.
+     *
+     * @param stage The stage.
+     * @return Returns whether the stage is ready.
+     */
+    public boolean isReady(Stage stage) {
+        return stages.get(stage).isDone();
+    }
+
+    /**
+     * Waits for a stage to be loaded, starting to load it if that has not happened yet. If the waiting thread is
+     * interrupted, this returns early with the thread's interrupt flag set again.
+     *
+     * @param stage The stage.
+     */
+    public void await(Stage stage) {
+        begin();
+        try {
+            stages.get(stage).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ignored) {
+        }
+    }
+
+    /**
+     * Runs an action once a stage has been loaded, right away if it already is. The action runs on the thread that
+     * loaded the stage, or on the calling thread if it is ready.
+     *
+     * @param stage  The stage.
+     * @param action The action to run.
+     */
+    public void whenReady(Stage stage, Runnable action) {
+        stages.get(stage).thenRun(action);
+    }
+}
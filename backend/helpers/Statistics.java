@@ -0,0 +1,152 @@
+package backend.helpers;
+
+import backend.Money;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.*;
+
+/**
+ * Statistics holds the result of aggregating a set of metrics over a date range. It is filled in a single pass over
+ * the days of the range, after which any of the requested metrics can be read from it.
+ */
+public class Statistics {
+
+    // Constants
+    public static final String ALL_DAYS = "ALL";
+    private static final int WEEK_LENGTH = 7;
+
+    // Instance variables
+    private final Set<Metric> metrics;
+    private final String[] weekdays;
+    private final HashMap<String, Integer> consumption;
+    private final int[][] hourlyCustomers;  // day of week to hour to customers
+    private final int[] weekdayCustomers;
+    private final long[] weekdaySales;      // in cents
+    private final int[] dayCounts;          // number of times each day of week occurs in the range
+
+    /**
+     * Constructs empty statistics for the given metrics.
+     *
+     * @param metrics The metrics that will be aggregated.
+     */
+    Statistics(Set<Metric> metrics) {
+        this.metrics = metrics.isEmpty() ? EnumSet.noneOf(Metric.class) : EnumSet.copyOf(metrics);
+        this.weekdays = new String[WEEK_LENGTH];
+        for (DayOfWeek day : DayOfWeek.values())
+            weekdays[day.ordinal()] = day.getDisplayName(TextStyle.FULL, Locale.getDefault());
+
+        consumption = new HashMap<>();
+        hourlyCustomers = new int[WEEK_LENGTH][DayRollup.HOURS];
+        weekdayCustomers = new int[WEEK_LENGTH];
+        weekdaySales = new long[WEEK_LENGTH];
+        dayCounts = new int[WEEK_LENGTH];
+    }
+
+    /**
+     * Counts a day of the range, whether or not anything happened on it.
+     *
+     * @param date The day to count.
+     */
+    void countDay(LocalDate date) {
+        dayCounts[date.getDayOfWeek().ordinal()]++;
+    }
+
+    /**
+     * Adds the rollup of a day to every requested metric.
+     *
+     * @param date The day of the rollup.
+     * @param day  The rollup to add.
+     */
+    void accept(LocalDate date, DayRollup day) {
+        int weekday = date.getDayOfWeek().ordinal();
+        if (metrics.contains(Metric.CONSUMPTION)) {
+            for (Map.Entry<String, Integer> entry : day.getConsumption().entrySet()) {
+                consumption.merge(entry.getKey(), entry.getValue(), Integer::sum);
+            }
+        }
+        if (metrics.contains(Metric.HOURLY_CUSTOMERS)) {
+            for (int hour = 0; hour < DayRollup.HOURS; hour++) hourlyCustomers[weekday][hour] += day.getCustomers(hour);
+        }
+        if (metrics.contains(Metric.WEEKDAY_CUSTOMERS)) weekdayCustomers[weekday] += day.getCustomers();
+        if (metrics.contains(Metric.WEEKDAY_SALES)) weekdaySales[weekday] += day.getSales();
+    }
+
+    /**
+     * Returns whether a metric was computed.
+     *
+     * @param metric The metric to check.
+     * @return Returns whether the metric is available in these statistics.
+     */
+    public boolean contains(Metric metric) {
+        return metrics.contains(metric);
+    }
+
+    /**
+     * Gets how often each menu item was ordered in the range.
+     *
+     * @return Returns a map of menu item names to order counts.
+     */
+    public Map<String, Integer> getConsumption() {
+        require(Metric.CONSUMPTION);
+        return Collections.unmodifiableMap(consumption);
+    }
+
+    /**
+     * Gets the average number of customers seated in each hour on the given day of week.
+     *
+     * @param weekday The name of the day of week, or ALL for every day.
+     * @return Returns an ordered map of hours (like "09:00") to the average number of customers.
+     */
+    public LinkedHashMap<String, Integer> getHourToCustomerAverage(String weekday) {
+        require(Metric.HOURLY_CUSTOMERS);
+        int[] customers = new int[DayRollup.HOURS];
+        int numDays = 0;
+        for (int day = 0; day < WEEK_LENGTH; day++) {
+            if (!weekday.equals(ALL_DAYS) && !weekdays[day].equals(weekday)) continue;
+            for (int hour = 0; hour < DayRollup.HOURS; hour++) customers[hour] += hourlyCustomers[day][hour];
+            numDays += dayCounts[day];
+        }
+
+        LinkedHashMap<String, Integer> map = new LinkedHashMap<>();
+        for (int hour = 0; hour < DayRollup.HOURS; hour++) {
+            map.put(String.format("%02d:00", hour), numDays > 0 ? customers[hour] / numDays : customers[hour]);
+        }
+        return map;
+    }
+
+    /**
+     * Gets the number of customers seated on each day of week.
+     *
+     * @return Returns a map of day of week names to numbers of customers.
+     */
+    public HashMap<String, Integer> getWeekdayToCustomers() {
+        require(Metric.WEEKDAY_CUSTOMERS);
+        HashMap<String, Integer> map = new HashMap<>();
+        for (int day = 0; day < WEEK_LENGTH; day++) map.put(weekdays[day], weekdayCustomers[day]);
+        return map;
+    }
+
+    /**
+     * Gets the value of orders delivered on each day of week.
+     *
+     * @return Returns a map of day of week names to total sales.
+     */
+    public HashMap<String, Double> getWeekdayToSales() {
+        require(Metric.WEEKDAY_SALES);
+        HashMap<String, Double> map = new HashMap<>();
+        for (int day = 0; day < WEEK_LENGTH; day++) map.put(weekdays[day], Money.toDollars(weekdaySales[day]));
+        return map;
+    }
+
+    /**
+     * Checks that a metric was requested when these statistics were computed.
+     *
+     * @param metric The metric being read.
+     */
+    private void require(Metric metric) {
+        if (!metrics.contains(metric))
+            throw new IllegalStateException(metric + " was not computed for these statistics.");
+    }
+}
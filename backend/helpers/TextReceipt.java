@@ -0,0 +1,91 @@
+package backend.helpers;
+
+import backend.Bill;
+import backend.Money;
+import controllers.helpers.StringHelper;
+
+/**
+ * Renders a Bill as a plain text receipt, with the names of items and amounts in two columns, like:
+ * <pre>
+ * Bill for table #3
+ *   Customer #1
+ *     Burger (order #12)              $7.99
+ *       extra cheese                  $0.70
+ *   Subtotal                          $8.69
+ * </pre>
+ */
+public class TextReceipt {
+
+    // Constants
+    private static final int WIDTH = 48;    // characters per line
+
+    // Instance variables
+    private Bill bill;
+
+    /**
+     * Constructs a receipt for a bill.
+     *
+     * @param bill The bill to render.
+     */
+    public TextReceipt(Bill bill) {
+        this.bill = bill;
+    }
+
+    /**
+     * Renders the receipt.
+     *
+     * @return Returns the receipt, with a line separator after every line.
+     */
+    @Override
+    public String toString() {
+        StringBuilder receipt = new StringBuilder();
+        line(receipt, "Bill for table #" + bill.getTableId(), "");
+
+        for (Bill.CustomerBill customer : bill.getCustomers()) {
+            line(receipt, "", "");
+            line(receipt, "  Customer #" + customer.getCustomerId(), "");
+            for (Bill.Item item : customer.getItems()) {
+                String name = new StringHelper().capitalize(item.getName());
+                line(receipt, "    " + name + " (order #" + item.getOrderId() + ")", Money.format(item.getPrice()));
+                for (Bill.Extra extra : item.getExtras()) {
+                    line(receipt, "      extra " + extra.getName(), Money.format(extra.getCost()));
+                }
+            }
+            totals(receipt, customer.getTotals(), "  ");
+        }
+
+        line(receipt, "", "");
+        totals(receipt, bill.getTotals(), "");
+        return receipt.toString();
+    }
+
+    /**
+     * Adds the subtotal, taxes, gratuity and total to the receipt.
+     *
+     * @param receipt The receipt being rendered.
+     * @param totals  The totals.
+     * @param indent  The indent of each line.
+     */
+    private void totals(StringBuilder receipt, Bill.Totals totals, String indent) {
+        line(receipt, indent + "Subtotal", Money.format(totals.getSubtotal()));
+        line(receipt, indent + "HST (" + Bill.HST + "%)", Money.format(totals.getTax()));
+        line(receipt, indent + "Gratuity (" + Bill.GRATUITY + "%)", Money.format(totals.getGratuity()));
+        line(receipt, indent + "Total", Money.format(totals.getTotal()));
+    }
+
+    /**
+     * Adds a line to the receipt, with its amount aligned to the right.
+     *
+     * @param receipt The receipt being rendered.
+     * @param text    The text on the left.
+     * @param amount  The amount on the right, or an empty string.
+     */
+    private void line(StringBuilder receipt, String text, String amount) {
+        receipt.append(text);
+        if (!amount.isEmpty()) {
+            for (int i = text.length() + amount.length(); i < WIDTH; i++) receipt.append(' ');
+            receipt.append(amount);
+        }
+        receipt.append(System.lineSeparator());
+    }
+}
@@ -76,7 +76,7 @@ public class Home extends BaseController {
      * @param id The id of the server employee.
      */
     private void serverHome(int id) {
-        Server server = getRestaurant().getEmployeeManager().getObject(x -> x.getId() == id, Server.class);
+        Server server = getRestaurant().getEmployeeManager().getObject(id, Server.class);
         if (server != null) {
             EmployeeHome home = new EmployeeHome(server);
             home.addMenuItem("View tables", new TableManager(server));
@@ -93,7 +93,7 @@ public class Home extends BaseController {
      * @param id The id of the cook employee.
      */
     private void cookHome(int id) {
-        Cook cook = getRestaurant().getEmployeeManager().getObject(x -> x.getId() == id, Cook.class);
+        Cook cook = getRestaurant().getEmployeeManager().getObject(id, Cook.class);
         if (cook != null) {
             EmployeeHome home = new EmployeeHome(cook);
             home.addMenuItem("View orders", new CookOrders(cook));
@@ -108,7 +108,7 @@ public class Home extends BaseController {
      * @param id The id of the manager employee.
      */
     private void managerHome(int id) {
-        Manager manager = getRestaurant().getEmployeeManager().getObject(x -> x.getId() == id, Manager.class);
+        Manager manager = getRestaurant().getEmployeeManager().getObject(id, Manager.class);
         if (manager != null) {
             EmployeeHome home = new EmployeeHome(manager);
             home.addMenuItem("View tables", new TableManager(manager));
@@ -3,16 +3,15 @@ package controllers.cells;
 import backend.foods.MenuIngredient;
 import backend.foods.Order;
 import controllers.helpers.StringHelper;
-import javafx.collections.ListChangeListener;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
 import javafx.scene.control.Label;
-import javafx.scene.control.ListCell;
 import javafx.scene.control.ListView;
 import javafx.scene.layout.HBox;
-import javafx.util.Callback;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.ResourceBundle;
 
 /**
@@ -30,38 +29,45 @@ public class CookOrderCell extends Cell {
     private Order order;
 
     /**
-     * Creates and Loads a CookOrderCell
-     *
-     * @param order Order this cell will represent
+     * Creates and Loads a CookOrderCell, which shows an order once one is bound to it.
      */
-    CookOrderCell(Order order) {
-        this.order = order;
+    CookOrderCell() {
         load();
     }
 
     /**
-     * Overrides the initialize method from Initializable to update the CookOrderCell view with
-     * the associated order's information.
+     * Overrides the initialize method from Initializable to set up the list of ingredients.
      *
      * @param location  The location it was initialized with.
      * @param resources The resource bundle.
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+        ingredientList.setFixedCellSize(24);
+    }
+
+    /**
+     * Updates the CookOrderCell view with an order's information, so the view can be reused for another order.
+     *
+     * @param order Order this cell will represent
+     */
+    void bind(Order order) {
+        this.order = order;
         foodItemLabel.setText(new StringHelper().capitalize(order.getName()));
         orderId.setText("Order # " + order.getId());
 
-        if (order.getNotes().trim().equals(""))
-            notesBox.getChildren().clear();
+        boolean hasNotes = !order.getNotes().trim().equals("");
+        notesBox.setVisible(hasNotes);
+        notesBox.setManaged(hasNotes);
 
+        List<String> ingredients = new ArrayList<>();
         for (MenuIngredient ingredient : order.getIngredients()) {
             String ingredientName = new StringHelper().capitalize(ingredient.toString());
             String ingredientQuantity = String.format("%.2f", ingredient.getQuantity());
-            ingredientList.getItems().add(ingredientQuantity + "    " + ingredientName);
+            ingredients.add(ingredientQuantity + "    " + ingredientName);
         }
-
-        ingredientList.setFixedCellSize(24);
-        ingredientList.setPrefHeight(24 * order.getIngredients().size() + 2);
+        ingredientList.getItems().setAll(ingredients);
+        ingredientList.setPrefHeight(24 * ingredients.size() + 2);
     }
 
     /**
@@ -11,15 +11,22 @@ import javafx.scene.control.ContextMenu;
 import javafx.scene.control.ListCell;
 import javafx.scene.layout.HBox;
 
+import java.util.function.Supplier;
+
 /**
  * A Factory for creating cells within the program. This factory handles the logic for deciding what cell to create.
  * The cell to create depends on what object the cell represents and for which employee's display screen.
  *
+ * A list only creates enough of these for the rows it shows, and hands them new items as it scrolls or refreshes. So
+ * each one loads the view of a cell the first time it needs it, and binds it to every item it is given afterwards.
+ *
  * @param <T> Type of object the Cell will represent
  */
 public class CustomCellFactory<T> extends ListCell<T> {
 
     private Employee employee;
+    private Cell cell;      // the cell last shown, kept to be bound to the next item
+    private HBox emptyBox = new HBox();
 
     /**
      * Creates a CustomCellFactory with specific employee.
@@ -53,34 +60,48 @@ public class CustomCellFactory<T> extends ListCell<T> {
     protected void updateItem(T item, boolean empty) {
         super.updateItem(item, empty);
 
-        Cell cell = getCell(item);
-        if (!empty && cell != null) setGraphic(cell.getBox());
-        else setGraphic(new HBox());
+        if (!empty && getCell(item) != null) setGraphic(cell.getBox());
+        else setGraphic(emptyBox);
     }
 
     /**
      * Returns the cell appropriate for the Employee this CustomCellFactory is for and the object that
-     * the Cell will represent
+     * the Cell will represent, bound to the object.
      *
      * @param item object the cell will represent
      * @return the appropriate cell
      */
     private Cell getCell(T item) {
         if (item instanceof Customer) {
-            return new CustomerCell((Customer) item);
+            reuse(CustomerCell.class, CustomerCell::new).bind((Customer) item);
         } else if (item instanceof MenuIngredient) {
-            return new IngredientCell((MenuIngredient) item);
+            reuse(IngredientCell.class, IngredientCell::new).bind((MenuIngredient) item);
         } else if (item instanceof Employee) {
-            return new EmployeeCell((Employee) item);
+            reuse(EmployeeCell.class, EmployeeCell::new).bind((Employee) item);
         } else if (item instanceof Order && employee instanceof Cook) {
-            return new CookOrderCell((Order) item);
+            reuse(CookOrderCell.class, CookOrderCell::new).bind((Order) item);
         } else if (item instanceof Order) {
-            return new OrderCell((Order) item);
+            reuse(OrderCell.class, OrderCell::new).bind((Order) item);
         } else if (item instanceof MenuItem && employee != null) {
-            return new MenuCell((MenuItem) item, employee);
+            reuse(MenuCell.class, () -> new MenuCell(employee)).bind((MenuItem) item);
         } else if (item instanceof Table) {
-            return new TableCell((Table) item);
+            reuse(TableCell.class, TableCell::new).bind((Table) item);
+        } else {
+            return null;
         }
-        return null;
+        return cell;
+    }
+
+    /**
+     * Gets the cell last shown if it is of the type needed, or creates a new one, loading its view.
+     *
+     * @param type        The type of cell needed.
+     * @param constructor Creates a cell of the type.
+     * @param <C>         The type of cell.
+     * @return Returns the cell to bind to the next item.
+     */
+    private <C extends Cell> C reuse(Class<C> type, Supplier<C> constructor) {
+        if (!type.isInstance(cell)) cell = constructor.get();
+        return type.cast(cell);
     }
 }
@@ -1,6 +1,7 @@
 package controllers.cells;
 
 import backend.Customer;
+import backend.Money;
 import backend.foods.Order;
 import javafx.fxml.FXML;
 import javafx.scene.control.Label;
@@ -19,30 +20,36 @@ public class CustomerCell extends Cell {
     private Customer customer;
 
     /**
-     * Creates a CustomerCell for a specific customer.
-     *
-     * @param customer customer the cell will represent.
+     * Creates a CustomerCell, which shows a customer once one is bound to it.
      */
-    CustomerCell(Customer customer) {
-        this.customer = customer;
+    CustomerCell() {
         load();
     }
 
     /**
-     * Overrides the initialize method for Initializable to initialize a CustomerCell.
+     * Overrides the initialize method for Initializable, as the view has no customer to show until one is bound.
      *
      * @param location  The location it was initialized with.
      * @param resources The resource bundle.
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+    }
+
+    /**
+     * Shows a customer in the cell's view, so the view can be reused for another customer.
+     *
+     * @param customer customer the cell will represent.
+     */
+    void bind(Customer customer) {
+        this.customer = customer;
         tableLabel.setText("Customer #" + customer.getId());
         pendingLabel.setText(customer.getPendingOrders().size() + " Pending Orders");
         confirmedLabel.setText(customer.getConfirmedOrders().size() + " Confirmed Orders");
 
-        double total = 0;
-        for (Order o : customer.getOrders()) total += o.getPrice();
-        billLabel.setText(String.format("$%.2f", total));
+        long total = 0;
+        for (Order o : customer.getOrders()) total += o.getPriceCents();
+        billLabel.setText(Money.format(total));
     }
 
 }
@@ -21,12 +21,9 @@ public class EmployeeCell extends Cell {
     private Employee employee;
 
     /**
-     * Creates a EmployeeCell for a specific Employee.
-     *
-     * @param employee Employee to make EmployeeCell for.
+     * Creates a EmployeeCell, which shows an Employee once one is bound to it.
      */
-    EmployeeCell(Employee employee) {
-        this.employee = employee;
+    EmployeeCell() {
         load();
     }
 
@@ -40,10 +37,19 @@ public class EmployeeCell extends Cell {
     public void initialize(URL location, ResourceBundle resources) {
         super.initialize(location, resources);
 
-        nameField.setText(employee.getName());
         nameField.setOnKeyPressed(event -> {
             if (event.getCode() == KeyCode.ENTER) save();
         });
+    }
+
+    /**
+     * Shows an Employee in the cell's view, so the view can be reused for another employee.
+     *
+     * @param employee Employee to show.
+     */
+    void bind(Employee employee) {
+        this.employee = employee;
+        nameField.setText(employee.getName());
         nameField.setDisable(true);
     }
 
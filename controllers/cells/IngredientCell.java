@@ -24,15 +24,24 @@ public class IngredientCell extends Cell {
     private int levels;
 
     /**
-     * Creates an IngredientCell for a specific MenuIngredient with the default amount it will increase by
+     * Creates an IngredientCell, which shows a MenuIngredient once one is bound to it.
+     */
+    IngredientCell() {
+        load();
+    }
+
+    /**
+     * Shows a specific MenuIngredient with the default amount it will increase by, so the view can be reused for
+     * another ingredient.
      *
      * @param ingredient The ingredient that this cell is displaying.
      */
-    IngredientCell(MenuIngredient ingredient) {
+    void bind(MenuIngredient ingredient) {
         this.ingredient = ingredient;
         this.plusLevelSize = (ingredient.getMaxQuantity() - ingredient.getDefaultQuantity()) / LEVEL_COUNT;
         this.minusLevelSize = (ingredient.getDefaultQuantity() - ingredient.getMinQuantity()) / LEVEL_COUNT;
-        load();
+        this.levels = 0;
+        update();
     }
 
     /**
@@ -49,6 +58,7 @@ public class IngredientCell extends Cell {
      */
     @Override
     public void update() {
+        if (ingredient == null) return;
         double quantity = ingredient.getDefaultQuantity() + levels * getLevelSize();
         String ingredientName = ingredient.toString() + " (" + String.format("%.1f", quantity) + ")";
         nameLabel.setText(new StringHelper().capitalize(ingredientName));
@@ -23,9 +23,9 @@ public class InventoryCell extends Cell {
     private Ingredient ingredient;
 
     @FXML
-    private Button editPrice, editThreshold;
+    private Button editPrice, editThreshold, editTarget;
     @FXML
-    private TextField priceField, thresholdField, quantityField;
+    private TextField priceField, thresholdField, targetField, quantityField;
 
     /**
      * Creates an InventoryCell for the inventory and a specific ingredient.
@@ -57,18 +57,33 @@ public class InventoryCell extends Cell {
     public void update() {
         priceField.setText(String.format("%.2f", ingredient.getUnitCost()));
         thresholdField.setText(String.format("%.2f", ingredient.getThreshold()));
+        targetField.setText(String.format("%.2f", ingredient.getTarget()));
         quantityField.setText(String.format("%.2f", inventory.getQuantity(ingredient.getName())));
     }
 
     /**
-     * saves any changes made to the ingredient in the instance of the ingredient.
+     * saves any changes made to the ingredient in the instance of the ingredient. The target is only set if it was
+     * edited, so an ingredient left at the default target keeps following its threshold; a target that is not above
+     * the threshold is refused.
      */
     @FXML
     public void save() {
         StringHelper sh = new StringHelper();
-        if (sh.isNumeric(new String[]{quantityField.getText(), thresholdField.getText(), priceField.getText()})) {
-
-            ingredient.setThreshold(Double.parseDouble(thresholdField.getText()));
+        if (sh.isNumeric(new String[]{quantityField.getText(), thresholdField.getText(), targetField.getText(),
+                priceField.getText()})) {
+
+            double threshold = Double.parseDouble(thresholdField.getText());
+            double target = Double.parseDouble(targetField.getText());
+            boolean targetEdited = !targetField.getText().equals(String.format("%.2f", ingredient.getTarget()));
+            boolean targetSet = ingredient.getTarget() != ingredient.getDefaultTarget();
+            double newTarget = targetEdited ? target : ingredient.getTarget();
+            if ((targetEdited || targetSet) && newTarget <= threshold) {
+                new Alert(Alert.AlertType.ERROR, "The target must be above the threshold!").showAndWait();
+                return;
+            }
+
+            ingredient.setThreshold(threshold);
+            if (targetEdited) ingredient.setTarget(target != ingredient.getDefaultTarget() ? target : 0);
             ingredient.setUnitCost(Double.parseDouble(priceField.getText()));
             inventory.setQuantity(ingredient.getName(), Double.parseDouble(quantityField.getText()));
             cancel();
@@ -85,13 +100,16 @@ public class InventoryCell extends Cell {
         quantityField.setDisable(true);
         priceField.setDisable(true);
         thresholdField.setDisable(true);
+        targetField.setDisable(true);
 
         if (!admin) {
             editPrice.setDisable(true);
             editThreshold.setDisable(true);
+            editTarget.setDisable(true);
         } else {
             editPrice.setOnAction(event -> priceField.setDisable(false));
             editThreshold.setOnAction(event -> thresholdField.setDisable(false));
+            editTarget.setOnAction(event -> targetField.setDisable(false));
         }
     }
 
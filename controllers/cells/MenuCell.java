@@ -23,24 +23,21 @@ public class MenuCell extends Cell {
     private TextField priceLabel;
 
     private MenuItem item;
-    private boolean available, admin;
+    private int available;
+    private boolean admin;
 
     /**
-     * Creates an instance of MenuCell with the MenuItem it represents and the Employee accessing it.
+     * Creates an instance of MenuCell for the Employee accessing it, which shows a MenuItem once one is bound to it.
      *
-     * @param menuItem MenuItem it represents
      * @param employee Employee accessing the MenuCell
      */
-    MenuCell(MenuItem menuItem, Employee employee) {
-        this.item = menuItem;
-        this.available = getRestaurant().getInventory().isFeasible(menuItem);
+    MenuCell(Employee employee) {
         this.admin = employee instanceof Manager;
         load();
     }
 
     /**
-     * Overrides the initialize method from Initializable, to set the values for the MenuCell with a specific
-     * MenuIngredients name and price and an event handler it.
+     * Overrides the initialize method from Initializable, to set an event handler on the price.
      *
      * @param location  The location it was initialized with.
      * @param resources The resource bundle.
@@ -49,24 +46,35 @@ public class MenuCell extends Cell {
     public void initialize(URL location, ResourceBundle resources) {
         super.initialize(location, resources);
 
-        nameLabel.setText(new StringHelper().capitalize(item.getName()));
-        priceLabel.setText(String.format("%.2f", item.getPrice()));
-
         priceLabel.setOnKeyPressed(event -> {
             if (event.getCode() == KeyCode.ENTER) {
                 if (new StringHelper().isNumeric(priceLabel.getText())) {
                     item.setPrice(Double.parseDouble(priceLabel.getText()));
+                    getRestaurant().menuChanged();
                 }
                 priceLabel.setDisable(true);
                 priceLabel.setText(String.format("%.2f", item.getPrice()));
             }
         });
+    }
 
-        if (!available) {
-            cellContainer.setDisable(true);
-            cellContainer.setStyle("-fx-background-color: #bdc3c7;");
-        }
+    /**
+     * Sets the values for the MenuCell with a specific MenuItem's name and price, so the view can be reused for
+     * another item. Items that cannot be made from the inventory are greyed out.
+     *
+     * @param menuItem MenuItem it represents
+     */
+    void bind(MenuItem menuItem) {
+        this.item = menuItem;
+        this.available = getRestaurant().getInventory().getOrderableCount(menuItem);
+
+        String name = new StringHelper().capitalize(item.getName());
+        nameLabel.setText(available > 0 && available < Integer.MAX_VALUE ? name + " (" + available + " left)" : name);
+        priceLabel.setText(String.format("%.2f", item.getPrice()));
+        priceLabel.setDisable(true);
 
+        cellContainer.setDisable(available == 0);
+        cellContainer.setStyle(available == 0 ? "-fx-background-color: #bdc3c7;" : "");
     }
 
     /**
@@ -78,6 +78,7 @@ public class MenuIngredientCell extends Cell {
                 menuIngredient.setMaxQuantity(max);
                 menuIngredient.setMinQuantity(min);
                 menuIngredient.setDefaultQuantity(def);
+                getRestaurant().menuChanged();
                 cancel();
             } else new Alert(Alert.AlertType.ERROR,
                     "Hmm. Seems like min-default-max aren't in increasing order.").showAndWait();
@@ -1,5 +1,6 @@
 package controllers.cells;
 
+import backend.Money;
 import backend.foods.MenuIngredient;
 import backend.foods.Order;
 import controllers.helpers.StringHelper;
@@ -21,26 +22,31 @@ public class OrderCell extends Cell {
     private Order item;
 
     /**
-     * Creates an OrderCell instance for a specific Order.
-     *
-     * @param order The Order
+     * Creates an OrderCell, which shows an order once one is bound to it.
      */
-    OrderCell(Order order) {
-        this.item = order;
+    OrderCell() {
         load();
     }
 
     /**
-     * Overrides the initialize method from Initializable, to set the information about the order for the OrderCell's
-     * view.
+     * Overrides the initialize method from Initializable, as the view has no order to show until one is bound.
      *
      * @param location  The location it was initialized with.
      * @param resources The resource bundle.
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+    }
+
+    /**
+     * Sets the information about an order for the OrderCell's view, so the view can be reused for another order.
+     *
+     * @param order The Order
+     */
+    void bind(Order order) {
+        this.item = order;
         idLabel.setText("Order #" + item.getId());
-        priceLabel.setText(String.format("$%.2f", item.getPrice()));
+        priceLabel.setText(Money.format(item.getPriceCents()));
         itemLabel.setText(new StringHelper().capitalize(item.getName()));
         stateLabel.setText(item.getState().toString());
 
@@ -19,23 +19,29 @@ public class TableCell extends Cell {
     private Table table;
 
     /**
-     * Creates a TableCell for a specific table
-     *
-     * @param table Table
+     * Creates a TableCell, which shows a table once one is bound to it.
      */
-    TableCell(Table table) {
-        this.table = table;
+    TableCell() {
         load();
     }
 
     /**
-     * Overrides the initialize method from Initializable, to set the information about table for the TableCell view.
+     * Overrides the initialize method from Initializable, as the view has no table to show until one is bound.
      *
      * @param location  The location it was initialized with.
      * @param resources The resource bundle.
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
+    }
+
+    /**
+     * Sets the information about a table for the TableCell view, so the view can be reused for another table.
+     *
+     * @param table Table
+     */
+    void bind(Table table) {
+        this.table = table;
         tableLabel.setText("Table #" + table.getId());
         occupiedLabel.setText(String.valueOf(table.getCustomers().size()));
     }
@@ -1,5 +1,6 @@
 package controllers.employees.manager;
 
+import backend.RestaurantStore;
 import backend.employees.Employee;
 import backend.employees.EmployeeFactory;
 import backend.employees.Manager;
@@ -54,6 +55,7 @@ public class EmployeeManager extends SplitList<Employee, Order> {
             CustomCellFactory<Employee> cell = new CustomCellFactory<>(employee);
             cell.addOption("Delete employee").setOnAction(event -> {
                 getRestaurant().getEmployeeManager().removeObject(cell.getItem().getId());
+                RestaurantStore.getInstance().employeeRemoved(cell.getItem().getId());
                 update();
             });
             return cell;
@@ -57,7 +57,10 @@ public class MenuManager extends SearchController<MenuItem> {
         primaryList.setCellFactory(param -> {
             CustomCellFactory<MenuItem> cell = new CustomCellFactory<>(employee);
             cell.addOption("Delete this item").setOnAction(e -> {
-                if (cell.getItem() != null) getRestaurant().getMenu().remove(cell.getItem());
+                if (cell.getItem() != null) {
+                    getRestaurant().getMenu().remove(cell.getItem());
+                    getRestaurant().menuChanged();
+                }
                 update();
             });
             return cell;
@@ -92,6 +95,7 @@ public class MenuManager extends SearchController<MenuItem> {
                 javafx.scene.control.MenuItem delete = new javafx.scene.control.MenuItem("Delete this ingredient");
                 delete.setOnAction(e -> {
                     menuItem.getIngredients().remove(i);
+                    getRestaurant().menuChanged();
                     secondaryList.getPanes().clear();
                     update();
                 });
@@ -123,6 +127,7 @@ public class MenuManager extends SearchController<MenuItem> {
         if (baseIngredient == null) return;
         if (selectedItem.getIngredient(baseIngredient.getName()) == null) {
             selectedItem.getIngredients().add(new MenuIngredient(baseIngredient, 0));
+            getRestaurant().menuChanged();
             primaryClick();
         } else
             new Alert(Alert.AlertType.ERROR, "The menu item already has this ingredient!").showAndWait();
@@ -142,6 +147,7 @@ public class MenuManager extends SearchController<MenuItem> {
         if (itemName != null && !itemName.trim().equals("")) {
             MenuItem newItem = new MenuItem(itemName.trim(), 0);
             getRestaurant().getMenu().add(newItem);
+            getRestaurant().menuChanged();
             primaryList.getItems().add(newItem);
         }
         update();
@@ -1,7 +1,11 @@
 package controllers.employees.manager;
 
 import backend.helpers.DataManager;
+import backend.helpers.Metric;
+import backend.helpers.Startup;
+import backend.helpers.Statistics;
 import controllers.BaseController;
+import javafx.application.Platform;
 import javafx.collections.FXCollections;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
@@ -10,6 +14,7 @@ import javafx.scene.chart.*;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ComboBox;
 import javafx.scene.control.DatePicker;
+import javafx.scene.control.Label;
 import javafx.scene.layout.VBox;
 
 import java.net.URL;
@@ -30,9 +35,11 @@ public class StatsViewer extends BaseController {
 
     // Instance variables
     private Map<String, Number> data;
+    private Statistics statistics;
     private List<Node> charts;
     private int chartType;
     private ComboBox<String> dropDown;
+    private boolean waitingForHistory;  // whether the view is already set to update once the history is loaded
 
     /**
      * Constructs teh StatsViewer screen.
@@ -79,7 +86,48 @@ public class StatsViewer extends BaseController {
         super.initialize(location, resources);
         startDate.setValue(LocalDate.of(2018, 1, 1));
         endDate.setValue(LocalDate.now());
-        endDate.setOnAction(event -> checkValidEndDate());
+        startDate.setOnAction(event -> statistics = null);
+        endDate.setOnAction(event -> {
+            statistics = null;
+            checkValidEndDate();
+        });
+    }
+
+    /**
+     * Gets the statistics of the selected date range. Every chart is computed in a single pass the first time
+     * any of them is shown, and reused until the date range changes or the view is updated.
+     *
+     * @return Returns the statistics of the selected date range.
+     */
+    private Statistics getStatistics() {
+        if (statistics == null) {
+            statistics = new DataManager(startDate.getValue(), endDate.getValue().plusDays(1))
+                    .aggregate(EnumSet.allOf(Metric.class));
+        }
+        return statistics;
+    }
+
+    /**
+     * Checks whether the event history has been loaded. If not, the chart is replaced with a message, and the view
+     * is updated once the history is ready (only once, however many times this is called while it loads).
+     *
+     * @return Returns whether the statistics can be computed.
+     */
+    private boolean isHistoryReady() {
+        Startup startup = Startup.getInstance();
+        if (startup.isReady(Startup.Stage.HISTORY)) return true;
+
+        Label loading = new Label("Loading history...");
+        VBox.setMargin(loading, new Insets(10, 10, 10, 10));
+        if (charts.size() > 0) secondaryBox.getChildren().removeAll(charts);
+        charts.clear();
+        charts.add(loading);
+        secondaryBox.getChildren().add(loading);
+        if (!waitingForHistory) {
+            waitingForHistory = true;
+            startup.whenReady(Startup.Stage.HISTORY, () -> Platform.runLater(this::update));
+        }
+        return false;
     }
 
     /**
@@ -124,8 +172,8 @@ public class StatsViewer extends BaseController {
      */
     public void busy(String weekday) {
         chartType = 1;
-        data = new DataManager(startDate.getValue(), endDate.getValue().plusDays(1))
-                .getHourToCustomerAverage(weekday);
+        if (!isHistoryReady()) return;
+        data = new LinkedHashMap<>(getStatistics().getHourToCustomerAverage(weekday));
         XYChart<String, Number> customersChart = new BarChart<>(
                 new CategoryAxis(), getYAxis("Number of customers"));
         customersChart.getData().add(getSeries("Customer count"));
@@ -144,8 +192,8 @@ public class StatsViewer extends BaseController {
     @FXML
     public void consumption() {
         chartType = 2;
-        data = new DataManager(startDate.getValue(), endDate.getValue().plusDays(1))
-                .getConsumptionData();
+        if (!isHistoryReady()) return;
+        data = new HashMap<>(getStatistics().getConsumption());
         List<PieChart.Data> series = new ArrayList<>();
         for (String key : data.keySet()) series.add(new PieChart.Data(key, data.get(key).doubleValue()));
         PieChart salesChart = new PieChart(FXCollections.observableList(series));
@@ -163,8 +211,8 @@ public class StatsViewer extends BaseController {
     @FXML
     private void sales() {
         chartType = 3;
-        data = new DataManager(startDate.getValue(), endDate.getValue().plusDays(1))
-                .getWeekdayToSales();
+        if (!isHistoryReady()) return;
+        data = new HashMap<>(getStatistics().getWeekdayToSales());
         XYChart<String, Number> salesChart = new LineChart<>(
                 getXAxis(), getYAxis("Amount of sales")
         );
@@ -182,9 +230,8 @@ public class StatsViewer extends BaseController {
     @FXML
     public void customers() {
         chartType = 4;
-
-        data = new DataManager(startDate.getValue(), endDate.getValue().plusDays(1))
-                .getWeekdayToCustomers();
+        if (!isHistoryReady()) return;
+        data = new HashMap<>(getStatistics().getWeekdayToCustomers());
         XYChart<String, Number> customersChart = new BarChart<>(
                 getXAxis(), getYAxis("Number of customers")
         );
@@ -213,10 +260,11 @@ public class StatsViewer extends BaseController {
     }
 
     /**
-     * Update chart type on click of update button.
+     * Update chart type on click of update button. The statistics are recomputed to include new events.
      */
     @FXML
     public void update() {
+        statistics = null;
         if (chartType == 1) busy();
         else if (chartType == 2) consumption();
         else if (chartType == 3) sales();
@@ -61,8 +61,8 @@ public class NewOrder extends SplitList<MenuItem, MenuIngredient> {
      */
     @Override
     protected void primarySingleClick(MenuItem item) {
-        if (getRestaurant().getInventory().isFeasible(item)) {
-            this.newOrder = new Order(getRestaurant().getOrderManager().getNextId(), item);
+        if (getRestaurant().getInventory().getOrderableCount(item) > 0) {
+            this.newOrder = new Order(getRestaurant().getOrderManager().reserveId(), item);
             sceneTitle.setText("New order: " + newOrder.getName());
             optionsLabel.setText("Change ingredients");
             secondaryList.setItems(FXCollections.observableList(newOrder.getChangeableIngredients()));
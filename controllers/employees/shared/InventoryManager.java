@@ -8,25 +8,43 @@ import controllers.SearchController;
 import controllers.cells.InventoryCell;
 import controllers.helpers.InputDialogFactory;
 import controllers.helpers.StringHelper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.control.Accordion;
 import javafx.scene.control.ContextMenu;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.MenuItem;
 import javafx.scene.control.TitledPane;
 
+import java.net.URL;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.Set;
+
 /**
  * The InventoryManager screen gives the ability to create, read, update and delete ingredients from the
  * inventory.
+ *
+ * The ingredients are shown in a list, which only creates rows for the ingredients on screen, and each row opens up
+ * like the panes of an accordion. Only one ingredient is open at a time, and its editor is only loaded when it is
+ * opened.
  */
 public class InventoryManager extends SearchController<Ingredient> {
 
     // Instance variables
     private Inventory inventory;
     private Employee employee;
+    private ObservableList<Ingredient> ingredients = FXCollections.observableArrayList();
+    private Ingredient expanded;        // the ingredient that is open, if any
+    private IngredientRow expandedRow;  // the row showing it
+    private InventoryCell editor;       // the editor of the open ingredient
 
     // FXML variables
     @FXML
-    private Accordion ingredientList;
+    private ListView<Ingredient> ingredientList;
 
     /**
      * Constructs an inventory manager screen with specified employee.
@@ -42,25 +60,95 @@ public class InventoryManager extends SearchController<Ingredient> {
     }
 
     /**
-     * Updates the list of ingredients on navigation or on calls to update.
+     * Overrides the initialize method from Initializable, to show the ingredients in rows that open up.
+     *
+     * @param location  The location it was initialized with.
+     * @param resources The resource bundle.
+     */
+    @Override
+    public void initialize(URL location, ResourceBundle resources) {
+        ingredientList.setItems(ingredients);
+        ingredientList.setCellFactory(param -> new IngredientRow());
+        super.initialize(location, resources);
+    }
+
+    /**
+     * Updates the list of ingredients on navigation or on calls to update. The open ingredient's editor is reverted
+     * to the ingredient's current values, or closed if the ingredient is no longer shown.
      */
     @Override
     public void update() {
-        ingredientList.getPanes().clear();
-        for (Ingredient i : filter(inventory.getInventoryIngredients())) {
-            TitledPane pane = new TitledPane(new StringHelper().capitalize(i.getName()),
-                    new InventoryCell(i, inventory, employee instanceof Manager).getBox());
+        List<Ingredient> results = filter(inventory.getInventoryIngredients());
+        show(results);
 
-            ContextMenu contextMenu = new ContextMenu();
-            MenuItem delete = new MenuItem("Delete this ingredient");
-            delete.setOnAction(e -> {
-                inventory.getInventoryIngredients().remove(i);
-                update();
-            });
-            contextMenu.getItems().add(delete);
-            pane.setContextMenu(contextMenu);
+        if (editor != null && results.stream().noneMatch(i -> i == expanded)) collapse();
+        else if (editor != null) editor.cancel();
+    }
+
+    /**
+     * Shows a list of ingredients, only adding and removing the rows that changed since the list was last shown. The
+     * ingredients are expected in the same relative order each time, as the inventory keeps them; if they are not,
+     * the whole list is replaced.
+     *
+     * @param results The ingredients to show.
+     */
+    private void show(List<Ingredient> results) {
+        if (ingredients.isEmpty()) {
+            ingredients.setAll(results);
+            return;
+        }
+
+        Set<Ingredient> shown = Collections.newSetFromMap(new IdentityHashMap<>());
+        shown.addAll(results);
+        ingredients.retainAll(shown);
 
-            ingredientList.getPanes().add(pane);
+        int i = 0;
+        while (i < results.size()) {
+            Ingredient next = i < ingredients.size() ? ingredients.get(i) : null;
+            if (results.get(i) == next) {
+                i++;
+                continue;
+            }
+            int end = i;
+            while (end < results.size() && results.get(end) != next) end++;
+            ingredients.addAll(i, results.subList(i, end));
+            i = end;
+        }
+
+        if (ingredients.size() != results.size()) ingredients.setAll(results);
+    }
+
+    /**
+     * Opens an ingredient, loading its editor and closing the one that was open before.
+     *
+     * @param ingredient The ingredient to open.
+     * @param row        The row showing it.
+     */
+    private void expand(Ingredient ingredient, IngredientRow row) {
+        IngredientRow previous = expandedRow;
+        expanded = ingredient;
+        expandedRow = row;
+        editor = new InventoryCell(ingredient, inventory, employee instanceof Manager);
+
+        if (previous != null && previous != row) {
+            previous.pane.setExpanded(false);
+            previous.pane.setContent(null);
+        }
+        row.pane.setContent(editor.getBox());
+    }
+
+    /**
+     * Closes the open ingredient and discards its editor.
+     */
+    private void collapse() {
+        IngredientRow row = expandedRow;
+        expanded = null;
+        expandedRow = null;
+        editor = null;
+
+        if (row != null) {
+            row.pane.setExpanded(false);
+            row.pane.setContent(null);
         }
     }
 
@@ -76,4 +164,64 @@ public class InventoryManager extends SearchController<Ingredient> {
             inventory.getIngredient(ingredientName);
         update();
     }
+
+    /**
+     * A row of the list, which shows an ingredient's name in a pane that opens up to its editor. The list reuses
+     * rows for different ingredients as it scrolls, so a row only holds on to the editor while it shows the open
+     * ingredient.
+     */
+    private class IngredientRow extends ListCell<Ingredient> {
+        private TitledPane pane = new TitledPane();
+
+        /**
+         * Constructs a row, with the option to delete the ingredient it shows.
+         */
+        private IngredientRow() {
+            pane.setAnimated(false);
+            pane.setExpanded(false);
+            pane.expandedProperty().addListener((observable, wasExpanded, isExpanded) -> {
+                if (isExpanded && getItem() != null && getItem() != expanded) expand(getItem(), this);
+                else if (!isExpanded && getItem() != null && getItem() == expanded) collapse();
+            });
+
+            ContextMenu contextMenu = new ContextMenu();
+            MenuItem delete = new MenuItem("Delete this ingredient");
+            delete.setOnAction(e -> {
+                if (getItem() != null) inventory.removeIngredient(getItem());
+                update();
+            });
+            contextMenu.getItems().add(delete);
+            setContextMenu(contextMenu);
+        }
+
+        /**
+         * Shows an ingredient in the row, open if it is the open ingredient.
+         *
+         * @param item  The ingredient.
+         * @param empty True if the row has no ingredient.
+         */
+        @Override
+        protected void updateItem(Ingredient item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null) {
+                if (expandedRow == this) expandedRow = null;
+                pane.setContent(null);
+                pane.setExpanded(false);
+                setGraphic(null);
+                return;
+            }
+
+            pane.setText(new StringHelper().capitalize(item.getName()));
+            if (item == expanded) {
+                expandedRow = this;
+                pane.setContent(editor.getBox());
+                pane.setExpanded(true);
+            } else {
+                if (expandedRow == this) expandedRow = null;
+                pane.setExpanded(false);
+                pane.setContent(null);
+            }
+            setGraphic(pane);
+        }
+    }
 }
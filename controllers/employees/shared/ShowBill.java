@@ -1,10 +1,11 @@
 package controllers.employees.shared;
 
+import backend.Bill;
 import controllers.BaseController;
+import controllers.helpers.BillGrid;
 import javafx.fxml.FXML;
 import javafx.geometry.Insets;
 import javafx.scene.control.ScrollPane;
-import javafx.scene.layout.GridPane;
 import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 
@@ -21,14 +22,14 @@ public class ShowBill extends BaseController {
     private VBox mainBox;
 
     // Instance variables
-    private GridPane bill;
+    private Bill bill;
 
     /**
      * Constructs the ShowBill screen with the specified bill.
      *
-     * @param bill The bill gridpane to be displayed.
+     * @param bill The bill to be displayed.
      */
-    ShowBill(GridPane bill) {
+    ShowBill(Bill bill) {
         this.bill = bill;
         load("MonoBox");
     }
@@ -41,7 +42,7 @@ public class ShowBill extends BaseController {
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        ScrollPane pane = new ScrollPane(bill);
+        ScrollPane pane = new ScrollPane(new BillGrid(bill).getGridPane());
         pane.setPadding(new Insets(50, 50, 50, 50));
         mainBox.getChildren().add(pane);
         VBox.setVgrow(pane, Priority.ALWAYS);
@@ -1,5 +1,8 @@
 package controllers.employees.shared;
 
+import backend.Bill;
+import backend.RestaurantStore;
+import backend.Settlement;
 import backend.Table;
 import backend.employees.Employee;
 import backend.employees.Manager;
@@ -60,9 +63,10 @@ public class TableManager extends SplitList<Table, Order> {
             CustomCellFactory<Table> cell = new CustomCellFactory<>(employee);
             if (employee instanceof Manager && cell.getItem() != null && cell.getItem().getCustomers().size() > 0) {
                 cell.addOption("Delete table").setOnAction(event -> {
-                    if (cell.getItem().getCustomers().size() == 0)
+                    if (cell.getItem().getCustomers().size() == 0) {
                         getRestaurant().getTableManager().removeObject(cell.getItem().getId());
-                    else new Alert(Alert.AlertType.ERROR, "There are customers on the table.");
+                        RestaurantStore.getInstance().tableRemoved(cell.getItem().getId());
+                    } else new Alert(Alert.AlertType.ERROR, "There are customers on the table.");
                     update();
                 });
             }
@@ -70,6 +74,7 @@ public class TableManager extends SplitList<Table, Order> {
         });
 
         addExtraControl(new Button("Bill"), event -> bill());
+        if (employee instanceof Manager) addExtraControl(new Button("Settle all"), event -> settleAll());
     }
 
     /**
@@ -108,7 +113,8 @@ public class TableManager extends SplitList<Table, Order> {
      */
     @FXML
     public void action() {
-        getRestaurant().getTableManager().addObject(new Table(getRestaurant().getTableManager().getNextId()));
+        Table table = getRestaurant().getTableManager().createObject(Table::new);
+        RestaurantStore.getInstance().tableAdded(table.getId());
         update();
     }
 
@@ -124,11 +130,37 @@ public class TableManager extends SplitList<Table, Order> {
         ).getConfirmation();
 
         if (confirmation) {
-            if (!table.getOrders().removeIf(o -> o.getState() != Order.State.DELIVERED)) {
-                new ShowBill(table.getBill()).navigate(this);
+            if (table.getOrders().stream().allMatch(o -> o.getState() == Order.State.DELIVERED)) {
+                Bill bill = table.getBill();
+                getRestaurant().billed(table);
+                new ShowBill(bill).navigate(this);
                 update();
             } else new Alert(Alert.AlertType.ERROR,
                     "Table has pending orders that need to be cancelled first.").showAndWait();
         }
     }
+
+    /**
+     * Bills and clears every table whose orders have all been delivered after asking for confirmation, writing
+     * their receipts to a file.
+     */
+    private void settleAll() {
+        Settlement settlement = new Settlement(getRestaurant());
+        int open = settlement.getOpenTables().size();
+        if (open == 0) {
+            new Alert(Alert.AlertType.INFORMATION, "There are no tables to settle.").showAndWait();
+            return;
+        }
+
+        boolean confirmation = new InputDialogFactory(
+                "Are you sure?", "This will bill " + open + " table(s) and remove their customers", ""
+        ).getConfirmation();
+
+        if (confirmation) {
+            int settled = settlement.settle();
+            if (settled < 0) new Alert(Alert.AlertType.ERROR, "The receipts could not be written.").showAndWait();
+            else new Alert(Alert.AlertType.INFORMATION, settled + " table(s) settled.").showAndWait();
+            update();
+        }
+    }
 }
@@ -0,0 +1,112 @@
+package controllers.helpers;
+
+import backend.Bill;
+import backend.Money;
+import javafx.scene.control.Label;
+import javafx.scene.layout.GridPane;
+
+/**
+ * Renders a Bill as a GridPane. The bill of each customer is shown with their orders and any extra ingredients they
+ * were charged for, followed by the bill for the entire table, leaving the option of splitting or paying the total to
+ * the table to decide.
+ */
+public class BillGrid {
+
+    // Instance variables
+    private Bill bill;
+
+    /**
+     * Constructs a renderer for a bill.
+     *
+     * @param bill The bill to render.
+     */
+    public BillGrid(Bill bill) {
+        this.bill = bill;
+    }
+
+    /**
+     * Helper method to repeat a specified string a specific number of times
+     *
+     * @param s     string to repeat
+     * @param times number of times you want to repeat the string
+     * @return the string repeated
+     */
+    private String repeat(String s, int times) {
+        return new String(new char[times]).replace("\0", s);
+    }
+
+    /**
+     * Generates a comprehensive bill which shows the specific bill details of each customer
+     * along with their order and including additional orders. Also shows the bill for the entire table.
+     *
+     * @return Returns a GridPane representation of the table's bill
+     */
+    public GridPane getGridPane() {
+        GridPane gridPane = new GridPane();
+        gridPane.setStyle("-fx-font-size:18px;");
+        gridPane.setHgap(20);
+        gridPane.add(new Label("Bill for table #" + bill.getTableId()), 0, 0);
+
+        int row = 0;
+        for (Bill.CustomerBill c : bill.getCustomers()) row = addCustomerBill(gridPane, c, row);
+
+        addTotals(gridPane, bill.getTotals(), row, 0);
+        return gridPane;
+    }
+
+    /**
+     * Helper method for generating the portion of the bill specific to each individual customer, which includes
+     * the customer ID followed by their orders and any specific extra ingredients added to the bill.
+     *
+     * @param gridPane The GridPane the bill is added to.
+     * @param customer The customer's part of the bill.
+     * @param row      the current row to add this customer's bill to (used for when there is more than one customer
+     *                 on a bill).
+     * @return Returns the current row the bill is on (for use of next bill components)
+     */
+    private int addCustomerBill(GridPane gridPane, Bill.CustomerBill customer, int row) {
+        gridPane.add(new Label("\t" + repeat("-", 20)), 0, ++row);
+        gridPane.add(new Label("\tCustomer #" + customer.getCustomerId()), 0, ++row);
+        gridPane.add(new Label("\t" + repeat("-", 20)), 0, ++row);
+
+        for (Bill.Item item : customer.getItems()) {
+            String name = new StringHelper().capitalize(item.getName());
+            gridPane.add(new Label("\t\t" + name + " (order #" + item.getOrderId() + ")"), 0, ++row);
+            gridPane.add(new Label(Money.format(item.getPrice())), 2, row);
+
+            for (Bill.Extra extra : item.getExtras()) {
+                gridPane.add(new Label("\t\t\textra " + extra.getName()), 0, ++row);
+                gridPane.add(new Label(Money.format(extra.getCost())), 2, row);
+            }
+        }
+
+        return addTotals(gridPane, customer.getTotals(), row, 1);
+    }
+
+    /**
+     * Adds the subtotal, taxes, gratuity and total to the bill.
+     *
+     * @param gridPane The GridPane the totals are added to.
+     * @param totals   The totals.
+     * @param row      Current row index the bill is on.
+     * @param tab      Tab amount for spacing.
+     * @return Returns the new row index;
+     */
+    private int addTotals(GridPane gridPane, Bill.Totals totals, int row, int tab) {
+        gridPane.add(new Label(repeat("\t", tab) + "Subtotal"), 0, ++row);
+        gridPane.add(new Label(Money.format(totals.getSubtotal())), 2, row);
+
+        gridPane.add(new Label(repeat("\t", tab) + "HST (" + Bill.HST + "%)"), 0, ++row);
+        gridPane.add(new Label(Money.format(totals.getTax())), 2, row);
+
+        gridPane.add(new Label(repeat("\t", tab) + "Gratuity (" + Bill.GRATUITY + "%)"), 0, ++row);
+        gridPane.add(new Label(Money.format(totals.getGratuity())), 2, row);
+
+        gridPane.add(new Label(repeat("\t", tab) + "Total"), 0, ++row);
+        gridPane.add(new Label(Money.format(totals.getTotal())), 2, row);
+
+        gridPane.add(new Label(" "), 0, ++row);
+
+        return row;
+    }
+}
@@ -1,9 +1,6 @@
 package controllers.helpers;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.*;
 
 /**
  * This is a helper class for easily serializing and deserializing an object from a file.
@@ -29,9 +26,7 @@ public class Serializer {
      * @return Returns the deserialized object.
      */
     public <T> T deserialize() {
-        try {
-            FileInputStream fInput = new FileInputStream(path);
-            ObjectInputStream oInput = new ObjectInputStream(fInput);
+        try (ObjectInputStream oInput = new ObjectInputStream(new BufferedInputStream(new FileInputStream(path)))) {
             return (T) oInput.readObject();
         } catch (java.io.IOException | ClassNotFoundException | ClassCastException e) {
             return null;
@@ -45,9 +40,8 @@ public class Serializer {
      * @return Returns whether the object was serialized successfully.
      */
     public boolean serialize(Object obj) {
-        try {
-            FileOutputStream fOutput = new FileOutputStream(path);
-            ObjectOutputStream oOutput = new ObjectOutputStream(fOutput);
+        try (ObjectOutputStream oOutput = new ObjectOutputStream(new BufferedOutputStream(
+                new FileOutputStream(path)))) {
             oOutput.writeObject(obj);
             return true;
         } catch (java.io.IOException e) {